@@ -0,0 +1,135 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared helpers for the benchmarks
+ */
+final class BenchmarkUtils {
+    static final String NAMESPACE = "my-namespace";
+    static final String RESOURCE_NAME = "my-secret";
+
+    private BenchmarkUtils() { }
+
+    /**
+     * Creates and starts in-process Kubernetes mock API server in the CRUD mode
+     *
+     * @return  Started Kubernetes mock server
+     */
+    static KubernetesMockServer crudMockServer()  {
+        KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(), new HashMap<>(), new KubernetesCrudDispatcher(), false);
+        server.init();
+
+        return server;
+    }
+
+    /**
+     * Creates the Secret in the mock server. The temporary client used to create it is closed, so its threads do not
+     * run in the background of the benchmark.
+     *
+     * @param server    Kubernetes mock server
+     * @param secret    The Secret
+     */
+    static void createSecret(KubernetesMockServer server, Secret secret)  {
+        try (KubernetesClient client = server.createClient()) {
+            client.secrets().resource(secret).create();
+        }
+    }
+
+    /**
+     * Creates a Secret with given number of keys. Every tenth key is named tls-[n].crt and the others are named
+     * key-[n] so that the key patterns match only some of the keys.
+     *
+     * @param keys  Number of keys in the Secret
+     *
+     * @return  The Secret
+     */
+    static Secret secret(int keys)   {
+        Map<String, String> data = new HashMap<>(keys);
+
+        for (int i = 0; i < keys; i++)  {
+            String key = i % 10 == 0 ? "tls-" + i + ".crt" : "key-" + i;
+            data.put(key, Base64.getEncoder().encodeToString(("value-of-the-key-number-" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withName(RESOURCE_NAME)
+                    .withNamespace(NAMESPACE)
+                    .withResourceVersion("1")
+                .endMetadata()
+                .withData(data)
+                .build();
+    }
+
+    /**
+     * Encodes the Secret in the Kubernetes Protobuf format the same way as the Kubernetes API server. Only the fields
+     * decoded by the configuration provider are encoded.
+     *
+     * @param secret    The Secret
+     *
+     * @return  The Protobuf encoded Secret
+     */
+    static byte[] protobufSecret(Secret secret)    {
+        ByteArrayOutputStream metadata = new ByteArrayOutputStream();
+        lengthDelimited(metadata, 1, utf8(secret.getMetadata().getName()));
+        lengthDelimited(metadata, 3, utf8(secret.getMetadata().getNamespace()));
+        lengthDelimited(metadata, 6, utf8(secret.getMetadata().getResourceVersion()));
+
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        lengthDelimited(object, 1, metadata.toByteArray());
+
+        for (Map.Entry<String, String> entry : secret.getData().entrySet())    {
+            ByteArrayOutputStream mapEntry = new ByteArrayOutputStream();
+            lengthDelimited(mapEntry, 1, utf8(entry.getKey()));
+            lengthDelimited(mapEntry, 2, Base64.getDecoder().decode(entry.getValue()));
+            lengthDelimited(object, 2, mapEntry.toByteArray());
+        }
+
+        ByteArrayOutputStream typeMeta = new ByteArrayOutputStream();
+        lengthDelimited(typeMeta, 1, utf8("v1"));
+        lengthDelimited(typeMeta, 2, utf8("Secret"));
+
+        ByteArrayOutputStream envelope = new ByteArrayOutputStream();
+        envelope.writeBytes(new byte[] {0x6b, 0x38, 0x73, 0x00});
+        lengthDelimited(envelope, 1, typeMeta.toByteArray());
+        lengthDelimited(envelope, 2, object.toByteArray());
+
+        return envelope.toByteArray();
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void lengthDelimited(ByteArrayOutputStream out, int field, byte[] value)  {
+        varint(out, (field << 3) | 2);
+        varint(out, value.length);
+        out.writeBytes(value);
+    }
+
+    private static void varint(ByteArrayOutputStream out, long value)   {
+        while ((value & ~0x7FL) != 0)   {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        out.write((int) value);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import org.apache.kafka.common.config.ConfigData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the complete get call including the Kubernetes API request to the in-process mock API server
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndGetBenchmark {
+    private static final String PATH = BenchmarkUtils.NAMESPACE + "/" + BenchmarkUtils.RESOURCE_NAME;
+
+    @Param({"10", "1000"})
+    public int keys;
+
+    private KubernetesMockServer server;
+    private KubernetesSecretConfigProvider provider;
+
+    @Setup
+    public void setUp() {
+        server = BenchmarkUtils.crudMockServer();
+        BenchmarkUtils.createSecret(server, BenchmarkUtils.secret(keys));
+
+        provider = new KubernetesSecretConfigProvider();
+        provider.configure(Map.of(), server.createClient());
+    }
+
+    @TearDown
+    public void tearDown() {
+        provider.close();
+        server.destroy();
+    }
+
+    @Benchmark
+    public ConfigData get() {
+        return provider.get(PATH);
+    }
+
+    @Benchmark
+    public ConfigData getSingleKey() {
+        return provider.get(PATH, Set.of("key-1"));
+    }
+}
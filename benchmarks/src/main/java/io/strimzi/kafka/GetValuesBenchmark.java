@@ -0,0 +1,87 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import org.apache.kafka.common.config.ConfigData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks selecting the values from the Secret with and without key patterns. The Secret is served from the
+ * informer cache, so the benchmark measures the work done by the provider without the Kubernetes API round-trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetValuesBenchmark {
+    private static final String PATH = BenchmarkUtils.NAMESPACE + "/" + BenchmarkUtils.RESOURCE_NAME;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int keys;
+
+    private KubernetesMockServer server;
+    private KubernetesSecretConfigProvider provider;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        server = BenchmarkUtils.crudMockServer();
+        BenchmarkUtils.createSecret(server, BenchmarkUtils.secret(keys));
+
+        provider = new KubernetesSecretConfigProvider();
+        provider.configure(Map.of("informers.enabled", "true"), server.createClient());
+
+        // Wait until the requests stop hitting the API server, which means the informer is synced
+        int requestCount;
+        do {
+            requestCount = server.getRequestCount();
+            provider.get(PATH);
+            Thread.sleep(100);
+        } while (server.getRequestCount() != requestCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        provider.close();
+        server.destroy();
+    }
+
+    @Benchmark
+    public ConfigData allKeys() {
+        return provider.get(PATH);
+    }
+
+    @Benchmark
+    public ConfigData literalKey() {
+        return provider.get(PATH, Set.of("key-1"));
+    }
+
+    @Benchmark
+    public ConfigData prefixGlob() {
+        return provider.get(PATH, Set.of("tls-*.crt"));
+    }
+
+    @Benchmark
+    public ConfigData wildcardGlob() {
+        return provider.get(PATH, Set.of("*-1?"));
+    }
+}
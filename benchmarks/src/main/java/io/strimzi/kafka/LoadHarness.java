@@ -0,0 +1,425 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+import io.fabric8.mockwebserver.http.MockResponse;
+import io.fabric8.mockwebserver.http.RecordedRequest;
+import org.apache.kafka.common.config.ConfigException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+
+/**
+ * Load and soak test harness simulating a large fleet of Kafka Connect workers resolving their configuration at the
+ * same time. Many configuration provider instances are used by many threads against the in-process mock Kubernetes
+ * API server with thousands of Secrets. The mock API server can inject latency and errors, and the Secrets are
+ * rotated while the load is running. The throughput, the resolution latency, the number of Kubernetes API requests,
+ * the heap usage, and the number of threads are reported periodically and at the end of the run.
+ *
+ * The options are passed as key=value arguments. Options prefixed with provider. are passed to the configuration
+ * providers without the prefix. For example:
+ *
+ * java -cp benchmarks/target/benchmarks.jar io.strimzi.kafka.LoadHarness secrets=5000 threads=128 latency.ms=20 error.rate=0.01 provider.cache.enabled=true
+ */
+public final class LoadHarness {
+    private static final String HARNESS_HEADER = "X-Load-Harness";
+    // Kept in a field, because the logger configuration is lost when the logger is garbage collected
+    private static final java.util.logging.Logger MOCK_SERVER_LOGGER = java.util.logging.Logger.getLogger("io.fabric8.mockwebserver");
+    private static final String PROVIDER_PREFIX = "provider.";
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "secrets", "2000",
+            "keys", "10",
+            "providers", "16",
+            "threads", "64",
+            "duration.seconds", "60",
+            "warmup.seconds", "10",
+            "latency.ms", "5",
+            "error.rate", "0",
+            "rotation.interval.ms", "1000",
+            "report.interval.seconds", "10");
+
+    private final Map<String, String> options;
+    private final Map<String, String> providerConfig = new HashMap<>();
+    private final FaultInjectingDispatcher dispatcher;
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram interval = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong(0);
+    private final AtomicLong rotations = new AtomicLong(0);
+    private final AtomicLong peakHeapBytes = new AtomicLong(0);
+
+    private LoadHarness(Map<String, String> options) {
+        this.options = new HashMap<>(DEFAULTS);
+
+        options.forEach((key, value) -> {
+            if (key.startsWith(PROVIDER_PREFIX))    {
+                providerConfig.put(key.substring(PROVIDER_PREFIX.length()), value);
+            } else if (DEFAULTS.containsKey(key)) {
+                this.options.put(key, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option " + key + ". Supported options are " + DEFAULTS.keySet() + " and options prefixed with " + PROVIDER_PREFIX);
+            }
+        });
+
+        this.dispatcher = new FaultInjectingDispatcher(longOption("latency.ms"), Double.parseDouble(this.options.get("error.rate")));
+    }
+
+    /**
+     * Runs the load harness
+     *
+     * @param args  Options in the key=value format
+     *
+     * @throws InterruptedException  When interrupted while waiting for the load to finish
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (separator < 0)  {
+                throw new IllegalArgumentException("Option " + arg + " is not in the key=value format");
+            }
+
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        new LoadHarness(options).run();
+    }
+
+    private void run() throws InterruptedException {
+        // The mock server logs every request
+        MOCK_SERVER_LOGGER.setLevel(Level.WARNING);
+
+        System.out.println("Options: " + options + ", provider configuration: " + providerConfig);
+
+        KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(), new HashMap<>(), dispatcher, false);
+        server.init();
+
+        // The requests of the harness itself are marked so that they are not counted and not delayed
+        KubernetesClient harnessClient = harnessClient(server);
+
+        int secrets = (int) longOption("secrets");
+        createSecrets(harnessClient, secrets);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        int threadsBefore = threadBean.getThreadCount();
+        threadBean.resetPeakThreadCount();
+
+        List<KubernetesSecretConfigProvider> providers = new ArrayList<>();
+        for (int i = 0; i < longOption("providers"); i++)   {
+            KubernetesSecretConfigProvider provider = new KubernetesSecretConfigProvider();
+            provider.configure(providerConfig, server.createClient());
+            providers.add(provider);
+        }
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        scheduler.scheduleAtFixedRate(() -> rotate(harnessClient, secrets), longOption("rotation.interval.ms"), longOption("rotation.interval.ms"), TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::report, longOption("report.interval.seconds"), longOption("report.interval.seconds"), TimeUnit.SECONDS);
+
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(longOption("warmup.seconds"));
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(longOption("duration.seconds"));
+
+        ExecutorService workers = Executors.newFixedThreadPool((int) longOption("threads"));
+        for (int i = 0; i < longOption("threads"); i++)   {
+            workers.execute(() -> resolve(providers, secrets, end));
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnd - System.nanoTime());
+        total.reset();
+        interval.reset();
+        errors.set(0);
+        rotations.set(0);
+        dispatcher.resetCounters();
+        System.out.println("Warm-up finished");
+
+        long start = System.nanoTime();
+        workers.shutdown();
+        workers.awaitTermination(end - System.nanoTime() + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9d;
+
+        // The periodic tasks are cancelled, but the running rotation is allowed to finish
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        int threadsPeak = threadBean.getPeakThreadCount();
+
+        peakHeapBytes.accumulateAndGet(heapUsed(), Math::max);
+
+        System.out.printf("%nSummary%n");
+        System.out.printf("  Resolutions:             %d (%.1f per second)%n", total.count(), total.count() / seconds);
+        System.out.printf("  Failed resolutions:      %d%n", errors.get());
+        System.out.printf("  Resolution latency:      p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n", total.percentileMs(0.5), total.percentileMs(0.99), total.percentileMs(0.999), total.maxMs());
+        System.out.printf("  Kubernetes API requests: %d (%.1f per second, %.3f per resolution), %d injected errors%n",
+                dispatcher.requests.get(), dispatcher.requests.get() / seconds, dispatcher.requests.get() / (double) Math.max(1, total.count()), dispatcher.injectedErrors.get());
+        System.out.printf("  Secret rotations:        %d%n", rotations.get());
+        System.out.printf("  Heap:                    peak %.1f MB, after GC %.1f MB%n", toMb(peakHeapBytes.get()), toMb(heapAfterGc()));
+
+        providers.forEach(KubernetesSecretConfigProvider::close);
+
+        System.out.printf("  Threads:                 %d before, %d peak, %d after closing the providers%n", threadsBefore, threadsPeak, threadBean.getThreadCount());
+
+        harnessClient.close();
+        server.destroy();
+    }
+
+    /**
+     * Creates the client used by the harness itself. The temporary mock server client is used only to get the
+     * configuration and is closed right away so that its threads are not counted.
+     *
+     * @param server    The mock server
+     *
+     * @return  Kubernetes client which marks its requests with the harness header
+     */
+    private static KubernetesClient harnessClient(KubernetesMockServer server)   {
+        try (KubernetesClient client = server.createClient())   {
+            return new KubernetesClientBuilder()
+                    .withConfig(new ConfigBuilder(client.getConfiguration()).withCustomHeaders(Map.of(HARNESS_HEADER, "true")).build())
+                    .build();
+        }
+    }
+
+    private void resolve(List<KubernetesSecretConfigProvider> providers, int secrets, long end)   {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < end)  {
+            KubernetesSecretConfigProvider provider = providers.get(random.nextInt(providers.size()));
+            String path = BenchmarkUtils.NAMESPACE + "/" + secretName(random.nextInt(secrets));
+
+            long start = System.nanoTime();
+            try {
+                provider.get(path);
+            } catch (ConfigException e) {
+                errors.incrementAndGet();
+            }
+
+            long latency = System.nanoTime() - start;
+            total.record(latency);
+            interval.record(latency);
+        }
+    }
+
+    private void createSecrets(KubernetesClient client, int secrets) throws InterruptedException {
+        long start = System.nanoTime();
+        int keys = (int) longOption("keys");
+        Secret template = BenchmarkUtils.secret(keys);
+
+        // The Secrets are created concurrently, because every request to the mock server has a fixed round-trip time
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        for (int i = 0; i < secrets; i++)   {
+            String name = secretName(i);
+
+            executor.execute(() -> client.secrets().inNamespace(BenchmarkUtils.NAMESPACE).resource(new SecretBuilder(template)
+                    .editMetadata()
+                        .withName(name)
+                        .withResourceVersion(null)
+                    .endMetadata()
+                    .build()).create());
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+
+        System.out.printf("Created %d Secrets with %d keys in %d ms%n", secrets, keys, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void rotate(KubernetesClient client, int secrets)    {
+        long rotation = rotations.incrementAndGet();
+        String value = Base64.getEncoder().encodeToString(("rotated-value-" + rotation).getBytes(StandardCharsets.UTF_8));
+
+        try {
+            client.secrets().inNamespace(BenchmarkUtils.NAMESPACE).withName(secretName(ThreadLocalRandom.current().nextInt(secrets)))
+                    .edit(secret -> new SecretBuilder(secret).addToData("key-1", value).build());
+        } catch (RuntimeException e) {
+            System.out.println("Failed to rotate the Secret: " + e.getMessage());
+        }
+    }
+
+    private void report()   {
+        long heap = heapUsed();
+        peakHeapBytes.accumulateAndGet(heap, Math::max);
+
+        long count = interval.count();
+        double p99 = interval.percentileMs(0.99);
+        double max = interval.maxMs();
+        interval.reset();
+
+        System.out.printf("%d resolutions (%.1f per second), p99 %.3f ms, max %.3f ms, %d failed, %d API requests, %d rotations, heap %.1f MB, %d threads%n",
+                count, count / (double) longOption("report.interval.seconds"), p99, max, errors.get(), dispatcher.requests.get(), rotations.get(),
+                toMb(heap), ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    private long longOption(String name) {
+        return Long.parseLong(options.get(name));
+    }
+
+    private static String secretName(int index)  {
+        return "secret-" + index;
+    }
+
+    private static long heapUsed()  {
+        long used = 0;
+
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())  {
+            if (pool.getType() == MemoryType.HEAP) {
+                used += pool.getUsage().getUsed();
+            }
+        }
+
+        return used;
+    }
+
+    private static long heapAfterGc()  {
+        System.gc();
+        return heapUsed();
+    }
+
+    private static double toMb(long bytes)  {
+        return bytes / (1024d * 1024d);
+    }
+
+    /**
+     * CRUD dispatcher counting the Kubernetes API requests made by the configuration providers and delaying them or
+     * failing them with 503 Service Unavailable. Watch requests are only counted.
+     */
+    private static final class FaultInjectingDispatcher extends KubernetesCrudDispatcher {
+        private static final String UNAVAILABLE = "{\"kind\":\"Status\",\"apiVersion\":\"v1\",\"status\":\"Failure\",\"reason\":\"ServiceUnavailable\",\"message\":\"Injected failure\",\"code\":503}";
+
+        private final long latencyMs;
+        private final double errorRate;
+        private final AtomicLong requests = new AtomicLong(0);
+        private final AtomicLong injectedErrors = new AtomicLong(0);
+
+        FaultInjectingDispatcher(long latencyMs, double errorRate) {
+            this.latencyMs = latencyMs;
+            this.errorRate = errorRate;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            if (request.getHeader(HARNESS_HEADER) != null)  {
+                return super.dispatch(request);
+            }
+
+            requests.incrementAndGet();
+
+            if (request.getPath().contains("watch=true"))   {
+                return super.dispatch(request);
+            }
+
+            MockResponse response;
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate)  {
+                injectedErrors.incrementAndGet();
+                response = new MockResponse().setResponseCode(503).setHeader("Content-Type", "application/json").setBody(UNAVAILABLE);
+            } else {
+                response = super.dispatch(request);
+            }
+
+            // The body delay does not block the mock server threads, so the delayed requests do not delay each other
+            return latencyMs > 0 ? response.setBodyDelay(latencyMs, TimeUnit.MILLISECONDS) : response;
+        }
+
+        void resetCounters()    {
+            requests.set(0);
+            injectedErrors.set(0);
+        }
+    }
+
+    /**
+     * Lock-free latency histogram with logarithmic buckets of 16 linear sub-buckets each. The reported percentiles
+     * are the upper bounds of the buckets, so they are precise to about 6%.
+     */
+    private static final class LatencyHistogram {
+        private static final int SUB_BUCKETS = 16;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(1024);
+        private final AtomicLong count = new AtomicLong(0);
+        private final AtomicLong maxNanos = new AtomicLong(0);
+
+        void record(long nanos)  {
+            long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+            buckets.incrementAndGet(bucket(micros));
+            count.incrementAndGet();
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        long count()    {
+            return count.get();
+        }
+
+        double maxMs()  {
+            return maxNanos.get() / 1e6d;
+        }
+
+        double percentileMs(double percentile)  {
+            long rank = (long) Math.ceil(percentile * count.get());
+            long seen = 0;
+
+            for (int i = 0; i < buckets.length(); i++)  {
+                seen += buckets.get(i);
+
+                if (seen >= rank && seen > 0)  {
+                    return upperBoundMicros(i) / 1e3d;
+                }
+            }
+
+            return 0;
+        }
+
+        void reset()    {
+            for (int i = 0; i < buckets.length(); i++)  {
+                buckets.set(i, 0);
+            }
+
+            count.set(0);
+            maxNanos.set(0);
+        }
+
+        private static int bucket(long micros)    {
+            if (micros < SUB_BUCKETS)   {
+                return (int) micros;
+            }
+
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) ((micros >>> (exponent - 4)) & (SUB_BUCKETS - 1));
+
+            return SUB_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+        }
+
+        private static long upperBoundMicros(int bucket)  {
+            if (bucket < SUB_BUCKETS)   {
+                return bucket + 1;
+            }
+
+            int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + 4;
+            int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+
+            return (long) (SUB_BUCKETS + subBucket + 1) << (exponent - 4);
+        }
+    }
+}
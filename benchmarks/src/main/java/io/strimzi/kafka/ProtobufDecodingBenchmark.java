@@ -0,0 +1,62 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding of the Secret returned by the Kubernetes API in the JSON format (parsed by the Kubernetes client)
+ * with the Protobuf format (decoded by the configuration provider). Run it with the -prof gc option to compare the
+ * allocations as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtobufDecodingBenchmark {
+    @Param({"10", "100", "1000"})
+    public int keys;
+
+    private KubernetesSerialization serialization;
+    private byte[] json;
+    private byte[] protobuf;
+
+    @Setup
+    public void setUp() {
+        Secret secret = BenchmarkUtils.secret(keys);
+
+        serialization = new KubernetesSerialization();
+        json = serialization.asJson(secret).getBytes(StandardCharsets.UTF_8);
+        protobuf = BenchmarkUtils.protobufSecret(secret);
+    }
+
+    @Benchmark
+    public Secret json() {
+        return serialization.unmarshal(new String(json, StandardCharsets.UTF_8), Secret.class);
+    }
+
+    @Benchmark
+    public HasMetadata protobuf() {
+        return KubernetesProtobuf.decode(protobuf);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks decoding of the Secret values. Every invocation of the uncached benchmarks uses a new resource version
+ * so that the memoized values cannot be reused.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecretDecodingBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int keys;
+
+    private KubernetesMockServer server;
+    private KubernetesSecretConfigProvider provider;
+    private Secret secret;
+    private long resourceVersion = 1L;
+
+    @Setup
+    public void setUp() {
+        // The values are decoded from the Secret directly, the mock server only backs the client of the provider
+        server = BenchmarkUtils.crudMockServer();
+
+        provider = new KubernetesSecretConfigProvider();
+        provider.configure(Map.of(), server.createClient());
+        secret = BenchmarkUtils.secret(keys);
+    }
+
+    @TearDown
+    public void tearDown() {
+        provider.close();
+        server.destroy();
+    }
+
+    private Map<String, String> newVersion()  {
+        secret.getMetadata().setResourceVersion(String.valueOf(++resourceVersion));
+        return provider.valuesFromResource(secret);
+    }
+
+    @Benchmark
+    public Map<String, String> decodeAllKeys() {
+        return new HashMap<>(newVersion());
+    }
+
+    @Benchmark
+    public String decodeSingleKey() {
+        return newVersion().get("tls-0.crt");
+    }
+
+    @Benchmark
+    public String memoizedSingleKey() {
+        return provider.valuesFromResource(secret).get("tls-0.crt");
+    }
+}
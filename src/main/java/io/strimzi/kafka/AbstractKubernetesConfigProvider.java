@@ -7,23 +7,24 @@ package io.strimzi.kafka;
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.fabric8.kubernetes.client.KubernetesClientBuilder;
-import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
+import org.apache.kafka.common.config.ConfigChangeCallback;
 import org.apache.kafka.common.config.ConfigData;
 import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.common.config.provider.ConfigProvider;
+import org.apache.kafka.common.metrics.Monitorable;
+import org.apache.kafka.common.metrics.PluginMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.file.FileSystems;
-import java.nio.file.PathMatcher;
-import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * Abstract class for Kafka configuration providers using Kubernetes resources
@@ -32,14 +33,23 @@ import java.util.stream.Collectors;
  * @param <L>   Resource list
  * @param <R>   Kubernetes resource
  */
-abstract class AbstractKubernetesConfigProvider<T extends HasMetadata, L extends KubernetesResourceList<T>, R extends Resource<T>> implements ConfigProvider {
+@SuppressWarnings({"checkstyle:ClassFanOutComplexity"})
+abstract class AbstractKubernetesConfigProvider<T extends HasMetadata, L extends KubernetesResourceList<T>, R extends Resource<T>> implements ConfigProvider, Monitorable {
     private static final Logger LOG = LoggerFactory.getLogger(AbstractKubernetesConfigProvider.class);
-    private static final String SEPARATOR_CONFIG_NAME = "separator";
 
     protected final String kind;
+    private final ProviderMetrics metrics;
 
     protected KubernetesClient client;
+    private String sharedClientKey;
     private String separator = System.lineSeparator();
+    private ResourceFetcher<T> fetcher;
+    private ResourceSubscriptions<T> subscriptions;
+    private ResultCache cache;
+    private LargeValues largeValues;
+    private VersionedValues versionedValues = VersionedValues.withDefaults();
+    private RefreshPolicy refresh;
+    private AsyncResolver async;
 
     /**
      * Creates the configuration provider
@@ -48,10 +58,11 @@ abstract class AbstractKubernetesConfigProvider<T extends HasMetadata, L extends
      */
     AbstractKubernetesConfigProvider(String kind) {
         this.kind = kind;
+        this.metrics = new ProviderMetrics(kind);
     }
 
     // Abstract methods
-    protected abstract MixedOperation<T, L, R> operator();
+    protected abstract MixedOperation<T, L, R> operator(KubernetesClient client);
 
     protected abstract Map<String, String> valuesFromResource(T resource);
 
@@ -59,18 +70,117 @@ abstract class AbstractKubernetesConfigProvider<T extends HasMetadata, L extends
     @Override
     public void close() {
         LOG.info("Closing Kubernetes {} config provider", kind);
-        client.close();
+
+        fetcher.close();
+
+        if (cache != null)  {
+            LOG.info("Kubernetes {} config provider result cache had {} hits, {} misses and {} evictions", kind, cache.hits(), cache.misses(), cache.evictions());
+        }
+
+        if (largeValues != null && largeValues.pool() != null)  {
+            LOG.info("Kubernetes {} config provider value pool has {} values and saved {} bytes in {} hits", kind, largeValues.pool().size(), largeValues.pool().bytesSaved(), largeValues.pool().hits());
+        }
+
+        subscriptions.close();
+
+        async.close();
+
+        metrics.close();
+
+        releaseClient(sharedClientKey, client);
     }
 
     @Override
     public void configure(Map<String, ?> config) {
-        LOG.info("Configuring Kubernetes {} config provider with configuration {}", kind, config);
+        LOG.info("Configuring Kubernetes {} config provider with configuration {}", kind, KubernetesConfigProviderConfig.masked(config));
+
+        KubernetesConfigProviderConfig providerConfig = new KubernetesConfigProviderConfig(config);
+
+        String key = providerConfig.clientShared() ? providerConfig.clientKey() : null;
+        KubernetesClient newClient = key != null ? KubernetesClientRegistry.acquire(key, providerConfig::createClient) : providerConfig.createClient();
+
+        try {
+            configure(providerConfig, newClient);
+            sharedClientKey = key;
+        } catch (RuntimeException e) {
+            // The provider is not usable, so it releases the client right away and does not close it again later
+            this.client = null;
+            releaseClient(key, newClient);
+            throw e;
+        }
+    }
+
+    private static void releaseClient(String sharedClientKey, KubernetesClient client)    {
+        if (sharedClientKey != null)    {
+            KubernetesClientRegistry.release(sharedClientKey);
+        } else if (client != null) {
+            client.close();
+        }
+    }
+
+    /**
+     * Configures the provider with an existing Kubernetes client. The client will be closed when the provider is closed.
+     *
+     * @param config    Configuration of the provider
+     * @param client    Kubernetes client which should be used by the provider
+     */
+    void configure(Map<String, ?> config, KubernetesClient client) {
+        LOG.info("Configuring Kubernetes {} config provider with configuration {}", kind, KubernetesConfigProviderConfig.masked(config));
+        configure(new KubernetesConfigProviderConfig(config), client);
+    }
+
+    private void configure(KubernetesConfigProviderConfig providerConfig, KubernetesClient client) {
+        separator = providerConfig.separator();
+        async = new AsyncResolver(providerConfig.asyncParallelism(), this::getValues);
+
+        this.client = client;
+        this.subscriptions = new ResourceSubscriptions<>(kind, watchedPath -> {
+            KubernetesResourceIdentifier resourceIdentifier = KubernetesResourceIdentifier.fromConfigString(client, watchedPath);
+            return operator(client).inNamespace(resourceIdentifier.getNamespace()).withName(resourceIdentifier.getName());
+        }, this::valuesFor);
+        this.fetcher = new ResourceFetcher<>(kind, this::operator, client, providerConfig, metrics);
+
+        if (providerConfig.cacheEnabled())  {
+            cache = new ResultCache(providerConfig.cacheMaxEntries(), providerConfig.cacheMaxBytes(), providerConfig.cacheTtlMs(), System::currentTimeMillis);
+        }
+
+        largeValues = LargeValues.fromConfig(providerConfig);
+        versionedValues = VersionedValues.fromConfig(providerConfig);
+        addGauges();
+        refresh = RefreshPolicy.fromConfig(providerConfig, path -> KubernetesResourceIdentifier.fromConfigString(client, path));
+
+        if (!providerConfig.prefetchPaths().isEmpty())    {
+            fetcher.prefetch(providerConfig);
+        }
+    }
+
+    /**
+     * Adds the statistics of the result cache and of the value pool to the metrics
+     */
+    private void addGauges()    {
+        if (cache != null)  {
+            metrics.addGauge("cache-hit-total", "The total number of the configurations served from the result cache", cache::hits);
+            metrics.addGauge("cache-miss-total", "The total number of the configurations not found in the result cache", cache::misses);
+            metrics.addGauge("cache-eviction-total", "The total number of the configurations evicted from the result cache", cache::evictions);
+        }
 
-        if (config.get(SEPARATOR_CONFIG_NAME) != null) {
-            separator = (String) config.get(SEPARATOR_CONFIG_NAME);
+        if (largeValues != null && largeValues.pool() != null)  {
+            ValuePool pool = largeValues.pool();
+            metrics.addJvmGauge("value-pool-hit-total", "The total number of the values reused from the JVM-wide value pool", pool::hits);
+            metrics.addJvmGauge("value-pool-saved-bytes-total", "The total number of bytes saved by reusing the values from the JVM-wide value pool", pool::bytesSaved);
+            metrics.addJvmGauge("value-pool-size", "The number of the values in the JVM-wide value pool", pool::size);
         }
+    }
 
-        client = new KubernetesClientBuilder().build();
+    /**
+     * Registers the provider metrics in the plugin metrics of the Kafka component using the provider. Without the
+     * plugin metrics, the provider metrics are reported through JMX using a JVM-wide metrics registry.
+     *
+     * @param pluginMetrics     Plugin metrics provided by Kafka
+     */
+    @Override
+    public void withPluginMetrics(PluginMetrics pluginMetrics) {
+        metrics.withPluginMetrics(pluginMetrics);
     }
 
     @Override
@@ -83,6 +193,97 @@ abstract class AbstractKubernetesConfigProvider<T extends HasMetadata, L extends
         return getValues(path, keys);
     }
 
+    // Asynchronous API
+
+    /**
+     * Gets all values from the Kubernetes resource asynchronously. The paths are resolved on a bounded executor
+     * (configured using the async.parallelism option) using the same Kubernetes client, caches and request
+     * coalescing as the blocking get methods.
+     *
+     * @param path  Path to the Kubernetes resource
+     *
+     * @return  Future completed with the configuration or with a ConfigException when it cannot be resolved
+     */
+    public CompletableFuture<ConfigData> getAsync(String path) {
+        return getAsync(path, null);
+    }
+
+    /**
+     * Gets the values of the requested keys from the Kubernetes resource asynchronously
+     *
+     * @param path  Path to the Kubernetes resource
+     * @param keys  Keys, which should be extracted from the resource or null to get all values
+     *
+     * @return  Future completed with the configuration or with a ConfigException when it cannot be resolved
+     */
+    public CompletableFuture<ConfigData> getAsync(String path, Set<String> keys) {
+        return async.resolve(path, keys);
+    }
+
+    /**
+     * Gets all values from many Kubernetes resources asynchronously. At most async.parallelism paths are resolved at
+     * the same time.
+     *
+     * @param paths     Paths to the Kubernetes resources
+     *
+     * @return  Future completed with the configurations keyed by their paths or with the first failure
+     */
+    public CompletableFuture<Map<String, ConfigData>> getAllAsync(Collection<String> paths) {
+        Map<String, Set<String>> keysByPath = new HashMap<>(paths.size());
+        paths.forEach(path -> keysByPath.put(path, null));
+
+        return getAllAsync(keysByPath);
+    }
+
+    /**
+     * Gets the values of the requested keys from many Kubernetes resources asynchronously. At most async.parallelism
+     * paths are resolved at the same time.
+     *
+     * @param keysByPath    Keys, which should be extracted from the resources, keyed by the paths to the resources.
+     *                      Null keys select all values of the resource.
+     *
+     * @return  Future completed with the configurations keyed by their paths or with the first failure
+     */
+    public CompletableFuture<Map<String, ConfigData>> getAllAsync(Map<String, Set<String>> keysByPath) {
+        return async.resolveAll(keysByPath);
+    }
+
+    /**
+     * Subscribes to the changes of the given keys in the Kubernetes resource. The resource is watched for changes and
+     * the callback is called only when the values of the subscribed keys change.
+     *
+     * @param path      Path to the Kubernetes resource
+     * @param keys      Keys, which should be watched for changes
+     * @param callback  Callback which will be called with the new values
+     */
+    @Override
+    public void subscribe(String path, Set<String> keys, ConfigChangeCallback callback) {
+        if (KubernetesResourceIdentifier.fromConfigString(client, path).isLabelSelector())  {
+            throw new UnsupportedOperationException("Subscriptions to paths with label selectors are not supported");
+        }
+
+        Map<String, String> current;
+
+        try {
+            current = getValues(path, keys).data();
+        } catch (ConfigException e) {
+            LOG.warn("Failed to get the current values of {} with path {}. Subscribing without them.", kind, path, e);
+            current = null;
+        }
+
+        subscriptions.subscribe(path, keys, callback, current);
+    }
+
+    @Override
+    public void unsubscribe(String path, Set<String> keys, ConfigChangeCallback callback) {
+        subscriptions.unsubscribe(path, keys, callback);
+    }
+
+    @Override
+    public void unsubscribeAll() {
+        subscriptions.close();
+    }
+
     /**
      * Gets the values from the Kubernetes resource.
      *
@@ -92,46 +293,126 @@ abstract class AbstractKubernetesConfigProvider<T extends HasMetadata, L extends
      * @return      Kafka ConfigData with the configuration
      */
     private ConfigData getValues(String path, Set<String> keys)    {
-        Map<String, String> values = valuesFromResource(getResource(path));
-        Map<String, String> configs = new HashMap<>(0);
+        final KubernetesResourceIdentifier resourceIdentifier = KubernetesResourceIdentifier.fromConfigString(client, path);
 
-        if (keys == null)   {
-            configs.putAll(values);
-        } else {
-            for (String key : keys) {
-                PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + key);
-                configs.put(key, values.entrySet().stream().filter(entry -> pathMatcher.matches(Paths.get(entry.getKey()))).sorted(Map.Entry.comparingByKey()).map(Map.Entry::getValue).collect(Collectors.joining(separator)));
+        try {
+            final String resourceVersion;
+            final Supplier<Map<String, String>> values;
+            final Map<String, String> mounted = fetcher.mountedValues(resourceIdentifier);
+
+            if (mounted != null)    {
+                // The mounted values do not have any resource version and are never cached in the result cache
+                resourceVersion = null;
+                values = () -> mounted;
+            } else if (resourceIdentifier.isLabelSelector())   {
+                List<T> resources = ResolutionEvents.fetch(kind, resourceIdentifier, "selector", () -> fetcher.list(resourceIdentifier));
+                resourceVersion = MergedValues.resourceVersion(resources);
+                values = () -> MergedValues.of(resources, this::valuesFromResource);
+            } else {
+                T resource = ResolutionEvents.fetch(kind, resourceIdentifier, "resource", () -> getResource(resourceIdentifier));
+                resourceVersion = resource.getMetadata().getResourceVersion();
+                values = () -> valuesFromResource(resource);
             }
+
+            long start = System.nanoTime();
+            ConfigData data = resolve(resourceIdentifier, keys, resourceVersion, values);
+            metrics.recordRequest(resourceIdentifier.getNamespace(), System.nanoTime() - start, ProviderMetrics.payloadBytes(data.data()));
+
+            return refresh != null ? withTtl(data, refresh.ttl(resourceIdentifier)) : data;
+        } catch (RuntimeException e) {
+            metrics.recordError(resourceIdentifier.getNamespace());
+            throw e;
         }
+    }
 
-        return new ConfigData(configs);
+    /**
+     * Adds the TTL to the resolved configuration
+     *
+     * @param data  The resolved configuration
+     * @param ttl   TTL in milliseconds or null if the configuration should not be refreshed
+     *
+     * @return  The configuration with the TTL
+     */
+    private static ConfigData withTtl(ConfigData data, Long ttl)  {
+        // The cached configuration is shared, so the TTL is always returned in a new instance
+        return ttl != null ? new ConfigData(data.data(), ttl) : data;
     }
 
-    // Kubernetes helper methods
+    /**
+     * Resolves the configuration using the result cache when enabled
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     * @param keys                  Keys, which should be extracted from the resource
+     * @param resourceVersion       Resource version of the resource
+     * @param values                Supplier of all values of the resource
+     *
+     * @return      Kafka ConfigData with the configuration
+     */
+    private ConfigData resolve(KubernetesResourceIdentifier resourceIdentifier, Set<String> keys, String resourceVersion, Supplier<Map<String, String>> values)  {
+        if (cache != null && resourceVersion != null)  {
+            ConfigData cached = cache.get(resourceIdentifier, keys, resourceVersion);
+
+            if (cached != null) {
+                ResolutionEvents.cacheHit(kind, resourceIdentifier, cached.data());
+                return cached;
+            } else {
+                return cache.put(resourceIdentifier, keys, resourceVersion, ResolutionEvents.filter(kind, resourceIdentifier, values, keys, separator, ResolutionEvents.CACHE_MISS));
+            }
+        } else {
+            return new ConfigData(ResolutionEvents.filter(kind, resourceIdentifier, values, keys, separator, ResolutionEvents.CACHE_DISABLED));
+        }
+    }
 
     /**
-     * Gets the resource from Kubernetes
+     * @return  The result cache or null if caching is disabled
+     */
+    ResultCache resultCache()   {
+        return cache;
+    }
+
+    /**
+     * Extracts the values of the requested keys from the Kubernetes resource.
      *
-     * @param path  Path to the Kubernetes resource
+     * @param resource  The Kubernetes resource
+     * @param keys      Keys, which should be extracted from the resource
      *
-     * @return      Resource retrieved from the Kubernetes cluster
+     * @return      Map with the configuration values
      */
-    protected T getResource(String path)   {
-        final KubernetesResourceIdentifier resourceIdentifier = KubernetesResourceIdentifier.fromConfigString(client, path);
+    private Map<String, String> valuesFor(T resource, Set<String> keys)    {
+        KubernetesResourceIdentifier resourceIdentifier = KubernetesResourceIdentifier.of(resource.getMetadata().getNamespace(), resource.getMetadata().getName());
+        return ResolutionEvents.filter(kind, resourceIdentifier, () -> valuesFromResource(resource), keys, separator, ResolutionEvents.CACHE_DISABLED);
+    }
 
-        LOG.info("Retrieving configuration from {} {} in namespace {}", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace());
+    /**
+     * @return  The handling of the large values or null if neither the files nor the value pool are enabled
+     */
+    protected LargeValues largeValues()   {
+        return largeValues;
+    }
 
-        try {
-            T resource = operator().inNamespace(resourceIdentifier.getNamespace()).withName(resourceIdentifier.getName()).get();
+    /**
+     * Reuses the values built from the same version of the resource. At most cache.max.entries most recently used
+     * resources are kept.
+     *
+     * @param resource  The resource
+     * @param values    Builds the values from the resource when they are not known for its current version
+     *
+     * @return  The values of the resource
+     */
+    protected Map<String, String> versionedValues(T resource, Supplier<Map<String, String>> values)   {
+        return versionedValues.get(resource, values);
+    }
 
-            if (resource == null)   {
-                throw new ConfigException(kind +  " " + resourceIdentifier.getName() + " in namespace " + resourceIdentifier.getNamespace() + " not found");
-            }
+    // Kubernetes helper methods
 
-            return resource;
-        } catch (KubernetesClientException e)   {
-            LOG.error("Failed to retrieve {} {} from Kubernetes namespace {}", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace(), e);
-            throw new ConfigException("Failed to retrieve " + kind +  " " + resourceIdentifier.getName() + " from Kubernetes namespace " + resourceIdentifier.getNamespace());
-        }
+    /**
+     * Gets the resource from Kubernetes
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return      Resource retrieved from the Kubernetes cluster
+     */
+    protected T getResource(KubernetesResourceIdentifier resourceIdentifier)   {
+        return fetcher.get(resourceIdentifier);
     }
 }
@@ -0,0 +1,292 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Multiple Kubernetes API server endpoints, for example several control plane nodes or a local caching proxy. The
+ * latency and the error rate of every endpoint are tracked as exponentially weighted moving averages. The requests are
+ * sent to the fastest healthy endpoint and fail over to the next endpoint when the Kubernetes API is not available or
+ * responds with a server error. When hedging is enabled, a request which does not complete within the hedge delay is
+ * sent also to the next endpoint and the first successful response is used.
+ *
+ * An endpoint is unhealthy when its error rate reaches 50%. Unhealthy endpoints are used only after all healthy
+ * endpoints failed, or again as healthy once they were not used for 30 seconds.
+ *
+ * @param <C>   Client used to call the endpoint
+ */
+final class ApiEndpoints<C> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ApiEndpoints.class);
+
+    private static final double ALPHA = 0.3;
+    private static final double UNHEALTHY_ERROR_RATE = 0.5;
+    private static final long RECOVERY_NS = TimeUnit.SECONDS.toNanos(30);
+
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final long hedgeDelayMs;
+    private final LongSupplier nanoClock;
+    private final Consumer<C> closer;
+    private final ExecutorService executor;
+
+    /**
+     * Creates the endpoints
+     *
+     * @param clients       Map with the URLs of the endpoints and the clients used to call them in the preferred order
+     * @param hedgeDelayMs  Delay in milliseconds after which the request is hedged to the next endpoint or 0 to disable
+     *                      the hedging
+     * @param nanoClock     Clock returning the current time in nanoseconds
+     * @param closer        Closes the clients when the endpoints are closed
+     */
+    ApiEndpoints(Map<String, C> clients, long hedgeDelayMs, LongSupplier nanoClock, Consumer<C> closer) {
+        clients.forEach((url, client) -> endpoints.add(new Endpoint(url, client)));
+        this.hedgeDelayMs = hedgeDelayMs;
+        this.nanoClock = nanoClock;
+        this.closer = closer;
+        this.executor = hedgeDelayMs > 0 ? ProviderExecutors.newUnboundedExecutor("kubernetes-config-provider-hedged-request") : null;
+    }
+
+    /**
+     * Creates the endpoints from the provider configuration. The clients for the individual endpoints use the
+     * configuration of the default client with a different API server URL. They do not retry the failed requests
+     * themselves, because the failed requests are sent to the next endpoint instead.
+     *
+     * @param client    The default Kubernetes client
+     * @param config    Configuration of the provider
+     *
+     * @return  The endpoints or null if no endpoints are configured
+     */
+    static ApiEndpoints<KubernetesClient> fromConfig(KubernetesClient client, KubernetesConfigProviderConfig config)   {
+        if (config.endpoints().isEmpty())   {
+            return null;
+        }
+
+        Map<String, KubernetesClient> clients = new LinkedHashMap<>();
+
+        for (String url : config.endpoints())   {
+            clients.put(url, new KubernetesClientBuilder()
+                    .withConfig(new ConfigBuilder(client.getConfiguration()).withMasterUrl(url).withRequestRetryBackoffLimit(0).build())
+                    .build());
+        }
+
+        return new ApiEndpoints<>(clients, config.endpointsHedgeDelayMs(), System::nanoTime, KubernetesClient::close);
+    }
+
+    /**
+     * Calls the endpoints starting with the fastest healthy one until the call succeeds or fails with an error which
+     * is not caused by the endpoint
+     *
+     * @param call  The call
+     *
+     * @return  Result of the call
+     *
+     * @param <R>   Type of the result
+     */
+    <R> R call(Function<C, R> call)   {
+        List<Endpoint> ranked = ranked();
+        KubernetesClientException failure = null;
+        int next = 0;
+
+        while (next < ranked.size())    {
+            Endpoint primary = ranked.get(next++);
+            Endpoint secondary = executor != null && next < ranked.size() ? ranked.get(next++) : null;
+
+            try {
+                return secondary != null ? hedged(primary, secondary, call) : primary.call(call);
+            } catch (KubernetesClientException e)   {
+                if (!retriable(e))  {
+                    throw e;
+                }
+
+                LOG.warn("Kubernetes API request failed on {}", secondary != null ? primary.url + " and " + secondary.url : primary.url, e);
+                failure = e;
+            }
+        }
+
+        throw failure;
+    }
+
+    /**
+     * Calls the primary endpoint and the secondary endpoint as well if the primary does not respond within the hedge
+     * delay or fails
+     */
+    private <R> R hedged(Endpoint primary, Endpoint secondary, Function<C, R> call)    {
+        CompletableFuture<R> first = CompletableFuture.supplyAsync(() -> primary.call(call), executor);
+
+        try {
+            return first.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.debug("Kubernetes API request to {} did not complete within {} ms, sending it also to {}", primary.url, hedgeDelayMs, secondary.url);
+            CompletableFuture<R> second = CompletableFuture.supplyAsync(() -> secondary.call(call), executor);
+            return await(firstSuccessful(first, second));
+        } catch (ExecutionException e) {
+            KubernetesClientException cause = unwrap(e);
+
+            if (!retriable(cause))  {
+                throw cause;
+            }
+
+            LOG.warn("Kubernetes API request failed on {}", primary.url, cause);
+            return secondary.call(call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KubernetesClientException("Interrupted while waiting for the Kubernetes API", e);
+        }
+    }
+
+    private static <R> CompletableFuture<R> firstSuccessful(CompletableFuture<R> first, CompletableFuture<R> second)   {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger(0);
+
+        for (CompletableFuture<R> future : List.of(first, second))  {
+            future.whenComplete((value, error) -> {
+                if (error == null)  {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private static <R> R await(CompletableFuture<R> future)  {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KubernetesClientException("Interrupted while waiting for the Kubernetes API", e);
+        }
+    }
+
+    private static KubernetesClientException unwrap(ExecutionException e)  {
+        Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null ? e.getCause().getCause() : e.getCause();
+
+        if (cause instanceof KubernetesClientException) {
+            return (KubernetesClientException) cause;
+        } else if (cause instanceof RuntimeException)   {
+            throw (RuntimeException) cause;
+        } else {
+            throw new KubernetesClientException("Kubernetes API request failed", cause);
+        }
+    }
+
+    /**
+     * Failures when connecting to the endpoint, server errors and throttling are caused by the endpoint and can be
+     * retried using another endpoint. Other errors (such as missing permissions) would be the same on every endpoint.
+     */
+    private static boolean retriable(KubernetesClientException e)   {
+        return e.getCode() <= 0 || e.getCode() >= 500 || e.getCode() == 429;
+    }
+
+    /**
+     * @return  The endpoints ordered from the most preferred one
+     */
+    private List<Endpoint> ranked()   {
+        long now = nanoClock.getAsLong();
+        List<Endpoint> ranked = new ArrayList<>(endpoints);
+
+        // The sort is stable, so the endpoints with the same latency stay in the configured order
+        ranked.sort(Comparator.comparing((Endpoint endpoint) -> !endpoint.healthy(now)).thenComparingDouble(Endpoint::latencyNs));
+
+        return ranked;
+    }
+
+    /**
+     * @return  URLs of the endpoints ordered from the most preferred one
+     */
+    List<String> preferredOrder()   {
+        List<String> urls = new ArrayList<>();
+        ranked().forEach(endpoint -> urls.add(endpoint.url));
+        return urls;
+    }
+
+    /**
+     * Stops the hedged requests and closes the clients
+     */
+    @Override
+    public void close() {
+        if (executor != null)   {
+            executor.shutdownNow();
+        }
+
+        endpoints.forEach(endpoint -> closer.accept(endpoint.client));
+    }
+
+    /**
+     * Single endpoint and its statistics
+     */
+    private final class Endpoint {
+        private final String url;
+        private final C client;
+        private double latencyNs = 0;
+        private double errorRate = 0;
+        private long lastUsedNs;
+        private boolean measured = false;
+
+        Endpoint(String url, C client) {
+            this.url = url;
+            this.client = client;
+        }
+
+        <R> R call(Function<C, R> call)  {
+            long start = nanoClock.getAsLong();
+
+            try {
+                R result = call.apply(client);
+                record(start, false);
+                return result;
+            } catch (KubernetesClientException e)   {
+                // Errors which are not caused by the endpoint mean that the endpoint works
+                record(start, retriable(e));
+                throw e;
+            }
+        }
+
+        private synchronized void record(long start, boolean failed)  {
+            long now = nanoClock.getAsLong();
+
+            if (!failed)    {
+                latencyNs = measured ? ALPHA * (now - start) + (1 - ALPHA) * latencyNs : now - start;
+                measured = true;
+            }
+
+            errorRate = ALPHA * (failed ? 1 : 0) + (1 - ALPHA) * errorRate;
+            lastUsedNs = now;
+        }
+
+        synchronized double latencyNs()    {
+            return latencyNs;
+        }
+
+        synchronized boolean healthy(long now) {
+            return errorRate < UNHEALTHY_ERROR_RATE || now - lastUsedNs >= RECOVERY_NS;
+        }
+    }
+}
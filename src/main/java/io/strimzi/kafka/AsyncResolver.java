@@ -0,0 +1,120 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigData;
+import org.apache.kafka.common.config.ConfigException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Resolves the configuration asynchronously on a bounded executor. The executor is created only when the asynchronous
+ * API is used for the first time.
+ */
+final class AsyncResolver {
+    private final int parallelism;
+    private final BiFunction<String, Set<String>, ConfigData> resolver;
+    private ExecutorService executor;
+    private boolean closed = false;
+
+    /**
+     * Creates the asynchronous resolver
+     *
+     * @param parallelism   Maximum number of paths resolved at the same time
+     * @param resolver      Function resolving the configuration for given path and keys
+     */
+    AsyncResolver(int parallelism, BiFunction<String, Set<String>, ConfigData> resolver) {
+        this.parallelism = parallelism;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Resolves the configuration asynchronously
+     *
+     * @param path  Path to the Kubernetes resource
+     * @param keys  Keys, which should be extracted from the resource or null to get all values
+     *
+     * @return  Future completed with the configuration or failed with a ConfigException when the resolver is closed
+     */
+    CompletableFuture<ConfigData> resolve(String path, Set<String> keys)  {
+        ExecutorService executor = executor();
+
+        if (executor == null)   {
+            return CompletableFuture.failedFuture(new ConfigException("The configuration provider is closed"));
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> resolver.apply(path, keys), executor);
+        } catch (RejectedExecutionException e) {
+            // Closed concurrently
+            return CompletableFuture.failedFuture(new ConfigException("The configuration provider is closed"));
+        }
+    }
+
+    /**
+     * Resolves the configurations of many paths asynchronously. When any path fails, the returned future fails
+     * immediately without waiting for the other paths and the paths which did not start yet are cancelled.
+     *
+     * @param keysByPath    Keys, which should be extracted from the resources, keyed by the paths to the resources
+     *
+     * @return  Future completed with the configurations keyed by their paths or with the first failure
+     */
+    CompletableFuture<Map<String, ConfigData>> resolveAll(Map<String, Set<String>> keysByPath)  {
+        Map<String, CompletableFuture<ConfigData>> futures = new HashMap<>(keysByPath.size());
+        keysByPath.forEach((path, keys) -> futures.put(path, resolve(path, keys)));
+
+        CompletableFuture<Map<String, ConfigData>> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+
+        if (futures.isEmpty())  {
+            result.complete(Map.of());
+        }
+
+        futures.values().forEach(future -> future.whenComplete((data, error) -> {
+            if (error != null)  {
+                if (result.completeExceptionally(error))    {
+                    futures.values().forEach(other -> other.cancel(false));
+                }
+            } else if (remaining.decrementAndGet() == 0) {
+                Map<String, ConfigData> results = new HashMap<>(futures.size());
+                futures.forEach((path, completed) -> results.put(path, completed.join()));
+                result.complete(results);
+            }
+        }));
+
+        return result;
+    }
+
+    /**
+     * Stops the executor
+     */
+    synchronized void close()   {
+        closed = true;
+
+        if (executor != null)   {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return  The executor or null if the resolver is closed
+     */
+    private synchronized ExecutorService executor()   {
+        if (closed) {
+            return null;
+        } else if (executor == null)  {
+            executor = ProviderExecutors.newBoundedExecutor("kubernetes-config-provider-async", parallelism);
+        }
+
+        return executor;
+    }
+}
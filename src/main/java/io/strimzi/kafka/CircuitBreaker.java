@@ -0,0 +1,80 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker protecting the Kubernetes API server. After a configured number of consecutive failures, the
+ * breaker opens and rejects all requests for the configured time. Once the time passes, a single trial request is
+ * allowed. When it succeeds, the breaker closes again. When it fails, the breaker opens again.
+ */
+final class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clock;
+
+    private int consecutiveFailures = 0;
+    private long openedAt = -1L;
+    private boolean trialInProgress = false;
+
+    /**
+     * Creates the circuit breaker
+     *
+     * @param failureThreshold  Number of consecutive failures after which the breaker opens
+     * @param openMs            Time in milliseconds for which the breaker stays open
+     * @param clock             Clock returning the current time in milliseconds
+     */
+    CircuitBreaker(int failureThreshold, long openMs, LongSupplier clock) {
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks if the request is allowed. When the breaker is half-open, only the first caller is allowed to make the
+     * trial request.
+     *
+     * @return  True if the request can be made. False otherwise.
+     */
+    synchronized boolean allowRequest()  {
+        if (openedAt < 0) {
+            return true;
+        } else if (!trialInProgress && clock.getAsLong() - openedAt >= openMs) {
+            trialInProgress = true;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Records a successful request and closes the breaker
+     */
+    synchronized void recordSuccess()  {
+        consecutiveFailures = 0;
+        openedAt = -1L;
+        trialInProgress = false;
+    }
+
+    /**
+     * Records a failed request and opens the breaker when the threshold is reached or when the trial request failed
+     */
+    synchronized void recordFailure()  {
+        consecutiveFailures++;
+
+        if (trialInProgress || consecutiveFailures >= failureThreshold)   {
+            openedAt = clock.getAsLong();
+            trialInProgress = false;
+        }
+    }
+
+    /**
+     * @return  True if the breaker is open or half-open. False otherwise.
+     */
+    synchronized boolean isOpen()  {
+        return openedAt >= 0;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+
+/**
+ * Writes large values into files named by the SHA-256 hash of their content. The configuration providers return the
+ * path to the file instead of the value itself, which keeps the large values (such as keystores or CA bundles) out of
+ * the heap and allows Kafka to use them directly in options such as ssl.keystore.location. Identical values share the
+ * same file and files which already exist with the same hash are not written again.
+ *
+ * Other users must not be able to replace the files, so the directory has to be owned by the user running the
+ * provider and accessible only by this user. When no directory is configured, a private directory with a random name
+ * is created in the temporary directory once for every process.
+ *
+ * The files are not deleted when the provider is closed, because they might be still used by the Kafka component or
+ * by other provider instances.
+ */
+final class ContentAddressedFiles {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Set<PosixFilePermission> PRIVATE = PosixFilePermissions.fromString("rwx------");
+
+    private static Path processDirectory;
+
+    private final Path configuredDirectory;
+    private final long thresholdBytes;
+    private volatile Path directory;
+
+    /**
+     * Creates the content-addressed files
+     *
+     * @param directory         Directory where the files are written or null to use the private directory of the
+     *                          process
+     * @param thresholdBytes    Values larger than this are written into files
+     */
+    ContentAddressedFiles(Path directory, long thresholdBytes) {
+        this.configuredDirectory = directory;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * Creates the content-addressed files from the provider configuration
+     *
+     * @param config    Configuration of the provider
+     *
+     * @return  The content-addressed files or null if they are disabled
+     */
+    static ContentAddressedFiles fromConfig(KubernetesConfigProviderConfig config)   {
+        if (config.filesEnabled())  {
+            return new ContentAddressedFiles(config.filesDirectory() != null ? Paths.get(config.filesDirectory()) : null, config.filesThresholdBytes());
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the value should be written into a file
+     *
+     * @param sizeBytes     Size of the value in bytes
+     *
+     * @return  True if the value is larger than the threshold. False otherwise.
+     */
+    boolean isLarge(long sizeBytes)    {
+        return sizeBytes > thresholdBytes;
+    }
+
+    /**
+     * Returns the value or the path to the file with the value when the value is larger than the threshold
+     *
+     * @param value     The value
+     *
+     * @return  The value or the path to the file
+     */
+    String valueOrPath(String value)    {
+        // Every character takes at least one byte in UTF-8, so shorter values do not need to be encoded
+        if (value == null || !isLarge(value.length()))  {
+            return value;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return isLarge(bytes.length) ? write(bytes) : value;
+    }
+
+    /**
+     * Writes the content into the file named by its hash unless the file with the same content already exists
+     *
+     * @param content   The content
+     *
+     * @return  Absolute path to the file
+     */
+    String write(byte[] content) {
+        String hash = sha256(content);
+        Path file = null;
+
+        try {
+            Path directory = directory();
+            file = directory.resolve(hash);
+
+            if (!exists(file, hash, content.length))    {
+                // Written into a temporary file first, so readers never see a partially written file
+                Path tmp = Files.createTempFile(directory, ".tmp-", "");
+                Files.write(tmp, content);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new ConfigException("Failed to write the value into the file " + (file != null ? file : hash) + ": " + e.getMessage());
+        }
+
+        return file.toAbsolutePath().toString();
+    }
+
+    /**
+     * Checks if the file exists and has the expected content. The size is compared first, so the content of most
+     * different files does not need to be hashed.
+     */
+    private static boolean exists(Path file, String hash, long size) throws IOException {
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)
+                && Files.size(file) == size
+                && hash.equals(sha256(Files.readAllBytes(file)));
+    }
+
+    /**
+     * Creates and verifies the directory when it is used for the first time
+     *
+     * @return  The verified directory
+     *
+     * @throws IOException  When the directory cannot be created or verified
+     */
+    private Path directory() throws IOException {
+        Path verified = directory;
+
+        if (verified == null)   {
+            synchronized (this) {
+                verified = directory;
+
+                if (verified == null)   {
+                    verified = configuredDirectory != null ? createDirectory(configuredDirectory) : processDirectory();
+                    verifyDirectory(verified);
+                    directory = verified;
+                }
+            }
+        }
+
+        return verified;
+    }
+
+    private static synchronized Path processDirectory() throws IOException {
+        if (processDirectory == null)   {
+            processDirectory = Files.createTempDirectory("kafka-kubernetes-config-provider-", privatePermissions(FileSystems.getDefault()));
+        }
+
+        return processDirectory;
+    }
+
+    private static Path createDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory))  {
+            try {
+                Files.createDirectories(directory, privatePermissions(directory.getFileSystem()));
+            } catch (FileAlreadyExistsException e) {
+                // Created concurrently by another provider
+            }
+        }
+
+        return directory;
+    }
+
+    private static FileAttribute<?>[] privatePermissions(FileSystem fileSystem)  {
+        if (fileSystem.supportedFileAttributeViews().contains("posix")) {
+            return new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(PRIVATE)};
+        } else {
+            return new FileAttribute<?>[0];
+        }
+    }
+
+    /**
+     * Verifies that the directory is owned by the user running the provider and accessible only by this user. The user
+     * is the owner of a temporary file created in the directory. The directory is not verified on file systems
+     * without POSIX permissions.
+     *
+     * @param directory     The directory
+     *
+     * @throws IOException  When the attributes of the directory cannot be read
+     */
+    private static void verifyDirectory(Path directory) throws IOException {
+        if (!directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+
+        PosixFileAttributes attributes = Files.readAttributes(directory, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+
+        if (!attributes.isDirectory())  {
+            throw new ConfigException("The files directory " + directory + " is not a directory");
+        }
+
+        Path probe = Files.createTempFile(directory, ".tmp-", "");
+        UserPrincipal user;
+
+        try {
+            user = Files.getOwner(probe);
+        } finally {
+            Files.delete(probe);
+        }
+
+        if (!attributes.owner().equals(user) || !PRIVATE.equals(attributes.permissions()))  {
+            throw new ConfigException("The files directory " + directory + " has to be owned by " + user.getName()
+                    + " with permissions rwx------, but it is owned by " + attributes.owner().getName()
+                    + " with permissions " + PosixFilePermissions.toString(attributes.permissions()));
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            char[] hex = new char[hash.length * 2];
+
+            for (int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
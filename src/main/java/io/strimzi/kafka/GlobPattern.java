@@ -0,0 +1,357 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled glob pattern used to select the keys from the Kubernetes resources. It follows the same syntax as the glob
+ * patterns used by the default file system path matcher (*, **, ?, [...] and {...}), but it is compiled only once
+ * and it avoids matching keys which cannot match the pattern:
+ *     - Patterns without any wildcards are resolved using a direct lookup of the key
+ *     - Patterns starting with a literal prefix (such as tls-*.crt) scan only the keys starting with the prefix
+ */
+final class GlobPattern {
+    // Compiled patterns are cached. The cache is cleared when it grows too much to not leak memory with dynamic keys.
+    private static final int MAX_CACHED_PATTERNS = 1_000;
+    private static final Map<String, GlobPattern> CACHE = new ConcurrentHashMap<>();
+
+    private static final String GLOB_CHARS = "\\*?[{";
+    private static final String REGEX_META_CHARS = ".^$+{[]|()";
+
+    private final String glob;
+    private final String prefix;
+    private final Pattern pattern;
+
+    private GlobPattern(String glob, String prefix, Pattern pattern) {
+        this.glob = glob;
+        this.prefix = prefix;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Returns the compiled glob pattern. The compiled patterns are cached and reused.
+     *
+     * @param glob  The glob pattern
+     *
+     * @return  Compiled glob pattern
+     */
+    static GlobPattern compile(String glob)    {
+        GlobPattern compiled = CACHE.get(glob);
+
+        if (compiled == null)   {
+            if (CACHE.size() >= MAX_CACHED_PATTERNS)    {
+                CACHE.clear();
+            }
+
+            compiled = CACHE.computeIfAbsent(glob, GlobPattern::doCompile);
+        }
+
+        return compiled;
+    }
+
+    private static GlobPattern doCompile(String glob)  {
+        int firstGlobChar = 0;
+        while (firstGlobChar < glob.length() && GLOB_CHARS.indexOf(glob.charAt(firstGlobChar)) == -1)   {
+            firstGlobChar++;
+        }
+
+        if (firstGlobChar == glob.length()) {
+            return new GlobPattern(glob, glob, null);
+        } else {
+            return new GlobPattern(glob, glob.substring(0, firstGlobChar), Pattern.compile(toRegex(glob)));
+        }
+    }
+
+    /**
+     * @return  True if the pattern does not contain any wildcards and matches only itself. False otherwise.
+     */
+    boolean isLiteral() {
+        return pattern == null;
+    }
+
+    /**
+     * Checks if the key matches the pattern
+     *
+     * @param key   The key
+     *
+     * @return  True if the key matches the pattern. False otherwise.
+     */
+    boolean matches(String key) {
+        return isLiteral() ? glob.equals(key) : key.startsWith(prefix) && pattern.matcher(key).matches();
+    }
+
+    /**
+     * Selects the values of the requested keys or key patterns. The keys are sorted only when any of the patterns
+     * is not a literal.
+     *
+     * @param values        All values of the resource
+     * @param keys          Requested keys or key patterns or null to select all values
+     * @param separator     Separator used to join multiple values matching a single pattern
+     *
+     * @return  Map with the selected values keyed by the requested keys
+     */
+    static Map<String, String> selectValues(Map<String, String> values, Set<String> keys, String separator)    {
+        Map<String, String> configs = new HashMap<>(0);
+
+        if (keys == null)   {
+            configs.putAll(values);
+        } else {
+            NavigableSet<String> sortedKeys = null;
+
+            for (String key : keys) {
+                GlobPattern pattern = compile(key);
+
+                if (sortedKeys == null && !pattern.isLiteral())  {
+                    sortedKeys = sortedKeys(values);
+                }
+
+                configs.put(key, pattern.select(sortedKeys, values, separator));
+            }
+        }
+
+        return configs;
+    }
+
+    /**
+     * Returns the sorted keys of the values. Maps which already keep their keys sorted (such as the lazily decoded
+     * Secret values) are used directly without sorting them again.
+     *
+     * @param values    The values
+     *
+     * @return  Sorted set with the keys
+     */
+    private static NavigableSet<String> sortedKeys(Map<String, String> values)   {
+        if (values.keySet() instanceof NavigableSet)    {
+            return (NavigableSet<String>) values.keySet();
+        } else {
+            return new TreeSet<>(values.keySet());
+        }
+    }
+
+    /**
+     * Selects the values of all keys matching the pattern and joins them in the order of the keys.
+     *
+     * @param sortedKeys    Sorted keys of the values. It is not used for literal patterns and can be null for them.
+     * @param values        The values
+     * @param separator     Separator used to join multiple values
+     *
+     * @return  The joined values or empty string if no key matches the pattern
+     */
+    String select(NavigableSet<String> sortedKeys, Map<String, String> values, String separator)  {
+        if (isLiteral())    {
+            String value = values.get(glob);
+            return value != null ? value : "";
+        } else {
+            StringJoiner joiner = new StringJoiner(separator);
+
+            for (String key : sortedKeys.tailSet(prefix, true))  {
+                if (!key.startsWith(prefix))    {
+                    break;
+                } else if (pattern.matcher(key).matches()) {
+                    joiner.add(values.get(key));
+                }
+            }
+
+            return joiner.toString();
+        }
+    }
+
+    /**
+     * Converts the glob pattern to a regular expression. The conversion follows the rules of the glob syntax of the
+     * default file system path matcher on Unix.
+     *
+     * @param glob  The glob pattern
+     *
+     * @return  Regular expression
+     */
+    private static String toRegex(String glob)  {
+        return new GlobConverter(glob).convert();
+    }
+
+    private static ConfigException invalid(String glob, String reason)  {
+        return new ConfigException("Invalid key pattern " + glob + ": " + reason);
+    }
+
+    /**
+     * Converts the glob pattern to a regular expression
+     */
+    private static final class GlobConverter {
+        private final String glob;
+        private final StringBuilder regex = new StringBuilder("^");
+        private boolean inGroup = false;
+        private int i = 0;
+
+        GlobConverter(String glob) {
+            this.glob = glob;
+        }
+
+        String convert()    {
+            while (i < glob.length())   {
+                char c = glob.charAt(i++);
+
+                if (c == '\\') {
+                    escaped();
+                } else if (c == '[') {
+                    characterClass();
+                } else if (c == '{' || c == '}' || c == ',') {
+                    group(c);
+                } else if (c == '*' || c == '?') {
+                    wildcard(c);
+                } else {
+                    literal(c);
+                }
+            }
+
+            if (inGroup) {
+                throw invalid(glob, "Missing '}'");
+            }
+
+            return regex.append('$').toString();
+        }
+
+        private char next()  {
+            return i < glob.length() ? glob.charAt(i) : 0;
+        }
+
+        private void escaped()  {
+            if (i == glob.length()) {
+                throw invalid(glob, "No character to escape");
+            }
+
+            literal(glob.charAt(i++));
+        }
+
+        private void literal(char c)  {
+            if (REGEX_META_CHARS.indexOf(c) != -1 || GLOB_CHARS.indexOf(c) != -1)  {
+                regex.append('\\');
+            }
+
+            regex.append(c);
+        }
+
+        private void wildcard(char c)  {
+            if (c == '?') {
+                regex.append("[^/]");
+            } else if (next() == '*') {
+                // ** matches across the / separators
+                regex.append(".*");
+                i++;
+            } else {
+                regex.append("[^/]*");
+            }
+        }
+
+        private void group(char c)  {
+            if (c == '{') {
+                if (inGroup)    {
+                    throw invalid(glob, "Cannot nest groups");
+                }
+
+                regex.append("(?:(?:");
+                inGroup = true;
+            } else if (c == '}' && inGroup) {
+                regex.append("))");
+                inGroup = false;
+            } else if (c == ',' && inGroup) {
+                regex.append(")|(?:");
+            } else {
+                regex.append(c);
+            }
+        }
+
+        /**
+         * Character classes use the ! character for negation and cannot match the / separator
+         */
+        private void characterClass()  {
+            regex.append("[[^/]&&[");
+
+            if (next() == '^') {
+                // Escape the regex negation character
+                regex.append("\\^");
+                i++;
+            } else {
+                if (next() == '!') {
+                    regex.append('^');
+                    i++;
+                }
+
+                if (next() == '-') {
+                    regex.append('-');
+                    i++;
+                }
+            }
+
+            char last = 0;
+
+            while (i < glob.length())   {
+                char c = glob.charAt(i++);
+
+                if (c == ']') {
+                    regex.append("]]");
+                    return;
+                } else if (c == '-') {
+                    if (last == 0) {
+                        throw invalid(glob, "Invalid range");
+                    } else if (range(last)) {
+                        return;
+                    }
+
+                    last = 0;
+                } else {
+                    classCharacter(c);
+                    last = c;
+                }
+            }
+
+            throw invalid(glob, "Missing ']'");
+        }
+
+        private void classCharacter(char c)  {
+            if (c == '/') {
+                throw invalid(glob, "Explicit 'name separator' in class");
+            } else if (c == '\\' || c == '[' || c == '&' && next() == '&') {
+                // Escape the characters with special meaning in regular expression classes
+                regex.append('\\');
+            }
+
+            regex.append(c);
+        }
+
+        /**
+         * Appends the range
+         *
+         * @param rangeStart    First character of the range
+         *
+         * @return  True if the character class was closed. False otherwise.
+         */
+        private boolean range(char rangeStart)  {
+            regex.append('-');
+            char rangeEnd = next();
+            i++;
+
+            if (rangeEnd == ']') {
+                regex.append("]]");
+                return true;
+            } else if (rangeEnd == 0) {
+                throw invalid(glob, "Missing ']'");
+            } else if (rangeEnd < rangeStart) {
+                throw invalid(glob, "Invalid range");
+            }
+
+            regex.append(rangeEnd);
+            return false;
+        }
+    }
+}
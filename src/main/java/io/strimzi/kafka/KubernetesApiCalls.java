@@ -0,0 +1,128 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.apache.kafka.common.config.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Function;
+
+/**
+ * Guards the calls to the Kubernetes API. The calls are rejected when the circuit breaker is open and wait for the
+ * JVM-wide rate limiter when the rate limiting is enabled. The latency of the calls is recorded in the metrics and
+ * the failures are converted to Kafka ConfigException. When multiple API server endpoints are configured, the calls
+ * are sent to the fastest healthy endpoint instead of using the default client.
+ */
+final class KubernetesApiCalls implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesApiCalls.class);
+
+    private final String kind;
+    private final KubernetesClient client;
+    private final ApiEndpoints<KubernetesClient> endpoints;
+    private final ProviderMetrics metrics;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Creates the Kubernetes API calls guard
+     *
+     * @param kind      Kind of the Kubernetes resource
+     * @param client    Kubernetes client
+     * @param config    Configuration of the provider
+     * @param metrics   Metrics of the provider
+     */
+    KubernetesApiCalls(String kind, KubernetesClient client, KubernetesConfigProviderConfig config, ProviderMetrics metrics) {
+        this.kind = kind;
+        this.client = client;
+        this.endpoints = ApiEndpoints.fromConfig(client, config);
+        this.metrics = metrics;
+        this.circuitBreaker = config.circuitBreakerFailureThreshold() > 0 ? new CircuitBreaker(config.circuitBreakerFailureThreshold(), config.circuitBreakerOpenMs(), System::currentTimeMillis) : null;
+        this.rateLimiter = RateLimiter.shared(config);
+    }
+
+    /**
+     * Calls the Kubernetes API
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     * @param call                  The Kubernetes API call using the client of the selected endpoint
+     *
+     * @return      Result of the call
+     *
+     * @param <R>   Type of the result
+     */
+    <R> R call(KubernetesResourceIdentifier resourceIdentifier, Function<KubernetesClient, R> call)   {
+        if (circuitBreaker == null) {
+            return guardedCall(resourceIdentifier, call);
+        } else if (!circuitBreaker.allowRequest())   {
+            throw new ConfigException("Failed to retrieve " + description(resourceIdentifier) + " from Kubernetes namespace " + resourceIdentifier.getNamespace() + ": Kubernetes API requests are suspended after repeated failures");
+        }
+
+        // The outcome is recorded for any exception, otherwise an unexpected failure of the half-open trial request
+        // would suspend the Kubernetes API requests forever
+        boolean succeeded = false;
+
+        try {
+            R result = guardedCall(resourceIdentifier, call);
+            succeeded = true;
+            return result;
+        } finally {
+            if (succeeded)  {
+                circuitBreaker.recordSuccess();
+            } else {
+                circuitBreaker.recordFailure();
+            }
+        }
+    }
+
+    /**
+     * Calls the Kubernetes API after waiting for the rate limiter and records the latency of the call
+     */
+    private <R> R guardedCall(KubernetesResourceIdentifier resourceIdentifier, Function<KubernetesClient, R> call)   {
+        if (rateLimiter != null)    {
+            metrics.recordQueueWait(resourceIdentifier.getNamespace(), rateLimiter.acquire(resourceIdentifier.getNamespace()));
+        }
+
+        LOG.info("Retrieving configuration from {} in namespace {}", description(resourceIdentifier), resourceIdentifier.getNamespace());
+
+        long start = System.nanoTime();
+
+        try {
+            return endpoints != null ? endpoints.call(call) : call.apply(client);
+        } catch (KubernetesClientException e)   {
+            LOG.error("Failed to retrieve {} from Kubernetes namespace {}", description(resourceIdentifier), resourceIdentifier.getNamespace(), e);
+            throw new ConfigException("Failed to retrieve " + description(resourceIdentifier) + " from Kubernetes namespace " + resourceIdentifier.getNamespace());
+        } finally {
+            metrics.recordApiCall(resourceIdentifier.getNamespace(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Describes the requested resource in the log and error messages
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return  Description of the resource
+     */
+    String description(KubernetesResourceIdentifier resourceIdentifier)    {
+        if (resourceIdentifier.isLabelSelector())   {
+            return kind + " resources with labels " + resourceIdentifier.getLabels();
+        } else {
+            return kind + " " + resourceIdentifier.getName();
+        }
+    }
+
+    /**
+     * Closes the clients of the API server endpoints if they are used
+     */
+    @Override
+    public void close() {
+        if (endpoints != null)  {
+            endpoints.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * JVM-wide registry of the Kubernetes clients shared by the configuration provider instances. The clients are keyed
+ * by their effective configuration and reference counted. A client is created when it is acquired for the first time
+ * and closed when the last provider using it releases it.
+ */
+final class KubernetesClientRegistry {
+    private static final Logger LOG = LoggerFactory.getLogger(KubernetesClientRegistry.class);
+    private static final Map<String, SharedClient> CLIENTS = new HashMap<>();
+
+    private KubernetesClientRegistry() { }
+
+    /**
+     * Derives the key from the client configuration. It covers the options which change the API server, the
+     * credentials, the TLS and proxy settings and the behavior of the client. The credentials are part of the key, so
+     * the key is hashed to keep them out of the registry.
+     *
+     * @param config    Configuration of the Kubernetes client
+     *
+     * @return  Key identifying the client configuration
+     */
+    static String key(Config config)    {
+        List<Object> options = Arrays.asList(
+                config.getMasterUrl(), config.getNamespace(), config.getCurrentContext() != null ? config.getCurrentContext().getName() : null,
+                config.getUsername(), config.getPassword(), config.getOauthToken(), config.getAutoOAuthToken(), config.getOauthTokenProvider(),
+                config.getAuthProvider(), config.getImpersonateUsername(), Arrays.toString(config.getImpersonateGroups()), config.getImpersonateExtras(),
+                config.getCaCertFile(), config.getCaCertData(), config.getClientCertFile(), config.getClientCertData(),
+                config.getClientKeyFile(), config.getClientKeyData(), config.getClientKeyAlgo(), config.getClientKeyPassphrase(),
+                config.getTrustStoreFile(), config.getTrustStorePassphrase(), config.getKeyStoreFile(), config.getKeyStorePassphrase(),
+                config.isTrustCerts(), config.isDisableHostnameVerification(), Arrays.toString(config.getTlsVersions()),
+                config.getHttpProxy(), config.getHttpsProxy(), config.getProxyUsername(), config.getProxyPassword(), Arrays.toString(config.getNoProxy()),
+                config.getConnectionTimeout(), config.getRequestTimeout(), config.getRequestRetryBackoffLimit(), config.getRequestRetryBackoffInterval(),
+                config.getMaxConcurrentRequests(), config.getMaxConcurrentRequestsPerHost(), config.isHttp2Disable(), config.getUserAgent(),
+                config.getCustomHeaders());
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(options.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Acquires the shared client. If no client with given configuration exists, it will be created.
+     *
+     * @param key       Key identifying the effective configuration of the client
+     * @param factory   Factory used to create the client if needed
+     *
+     * @return  The shared Kubernetes client
+     */
+    static synchronized KubernetesClient acquire(String key, Supplier<KubernetesClient> factory)    {
+        SharedClient shared = CLIENTS.get(key);
+
+        if (shared == null) {
+            LOG.info("Creating new shared Kubernetes client");
+            shared = new SharedClient(factory.get());
+            CLIENTS.put(key, shared);
+        }
+
+        shared.references++;
+        return shared.client;
+    }
+
+    /**
+     * Releases the shared client. The client will be closed if it is not used anymore.
+     *
+     * @param key   Key identifying the effective configuration of the client
+     */
+    static synchronized void release(String key)    {
+        SharedClient shared = CLIENTS.get(key);
+
+        if (shared != null && --shared.references == 0) {
+            LOG.info("Closing shared Kubernetes client which is not used anymore");
+            CLIENTS.remove(key);
+            shared.client.close();
+        }
+    }
+
+    /**
+     * Shared client with its reference counter
+     */
+    private static final class SharedClient {
+        private final KubernetesClient client;
+        private int references = 0;
+
+        SharedClient(KubernetesClient client) {
+            this.client = client;
+        }
+    }
+}
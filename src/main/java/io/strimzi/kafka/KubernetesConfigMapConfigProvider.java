@@ -6,9 +6,12 @@ package io.strimzi.kafka;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.ConfigMapList;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -23,12 +26,43 @@ public final class KubernetesConfigMapConfigProvider extends AbstractKubernetesC
     }
 
     @Override
-    protected MixedOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> operator()    {
+    protected MixedOperation<ConfigMap, ConfigMapList, Resource<ConfigMap>> operator(KubernetesClient client)    {
         return client.configMaps();
     }
 
+    /**
+     * Returns the values of the Config Map. When the content-addressed files are enabled, the large values and the
+     * binary data are written into files and the paths to the files are returned instead. When the value pool is
+     * enabled, the large values are deduplicated. These values are reused as long as the resource version of the
+     * Config Map does not change (for at most cache.max.entries most recently used Config Maps).
+     *
+     * @param resource  The Config Map
+     *
+     * @return  Map with the values
+     */
     @Override
     protected Map<String, String> valuesFromResource(ConfigMap resource) {
-        return resource.getData();
+        LargeValues largeValues = largeValues();
+
+        if (largeValues == null)  {
+            return resource.getData();
+        }
+
+        return versionedValues(resource, () -> largeValues(resource, largeValues));
+    }
+
+    private static Map<String, String> largeValues(ConfigMap resource, LargeValues largeValues)  {
+        Map<String, String> values = new HashMap<>();
+
+        if (resource.getData() != null) {
+            resource.getData().forEach((name, value) -> values.put(name, largeValues.fromString(value)));
+        }
+
+        // The binary data are used only when they can be written into files
+        if (resource.getBinaryData() != null && largeValues.filesEnabled())   {
+            resource.getBinaryData().forEach((name, value) -> values.put(name, largeValues.binary(Base64.getDecoder().decode(value))));
+        }
+
+        return values;
     }
 }
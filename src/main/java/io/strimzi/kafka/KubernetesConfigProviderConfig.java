@@ -0,0 +1,470 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.types.Password;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Configuration of the Kubernetes configuration providers. The options are passed to the provider using the
+ * config.providers.[name].param.[option] Kafka configuration options.
+ */
+final class KubernetesConfigProviderConfig extends AbstractConfig {
+    static final String SEPARATOR_CONFIG = "separator";
+    private static final String SEPARATOR_DOC = "Separator used to join the values of multiple keys matching a key pattern. Defaults to the line separator.";
+
+    static final String INFORMERS_ENABLED_CONFIG = "informers.enabled";
+    private static final String INFORMERS_ENABLED_DOC = "Enables serving the resources from a local cache maintained by Kubernetes informers instead of getting them from the Kubernetes API on every request";
+
+    static final String INFORMERS_SCOPE_CONFIG = "informers.scope";
+    static final String INFORMERS_SCOPE_NAMESPACE = "namespace";
+    static final String INFORMERS_SCOPE_RESOURCE = "resource";
+    private static final String INFORMERS_SCOPE_DOC = "Scope of the informers. With namespace, one informer is used for all resources in a given namespace. With resource, one informer is used for every resource.";
+
+    static final String CACHE_ENABLED_CONFIG = "cache.enabled";
+    private static final String CACHE_ENABLED_DOC = "Enables caching of the resolved configurations. The cached configurations are used as long as the resource version of the Kubernetes resource does not change.";
+
+    static final String CACHE_MAX_ENTRIES_CONFIG = "cache.max.entries";
+    static final int CACHE_MAX_ENTRIES_DEFAULT = 1_000;
+    private static final String CACHE_MAX_ENTRIES_DOC = "Maximum number of resolved configurations kept in the cache. It also limits the number of resources whose decoded values are reused while their resource version does not change.";
+
+    static final String CACHE_MAX_BYTES_CONFIG = "cache.max.bytes";
+    private static final String CACHE_MAX_BYTES_DOC = "Maximum estimated size of the resolved configurations kept in the cache in bytes";
+
+    static final String CACHE_TTL_MS_CONFIG = "cache.ttl.ms";
+    private static final String CACHE_TTL_MS_DOC = "Maximum time in milliseconds for which a resolved configuration is kept in the cache";
+
+    static final String CLIENT_SHARED_CONFIG = "client.shared";
+    private static final String CLIENT_SHARED_DOC = "Enables sharing of the Kubernetes client with the other configuration provider instances using the same effective client configuration in the same JVM";
+
+    static final String STALE_WHILE_REVALIDATE_ENABLED_CONFIG = "stale.while.revalidate.enabled";
+    private static final String STALE_WHILE_REVALIDATE_ENABLED_DOC = "Enables serving the last successfully retrieved version of the resources immediately while refreshing them in the background";
+
+    static final String STALE_MAX_MS_CONFIG = "stale.max.ms";
+    private static final String STALE_MAX_MS_DOC = "Maximum age in milliseconds of the last successfully retrieved version of a resource which can be served while refreshing it in the background";
+
+    static final String CIRCUIT_BREAKER_FAILURE_THRESHOLD_CONFIG = "circuit.breaker.failure.threshold";
+    private static final String CIRCUIT_BREAKER_FAILURE_THRESHOLD_DOC = "Number of consecutive failed Kubernetes API requests after which the requests are rejected without calling the Kubernetes API. 0 disables the circuit breaker.";
+
+    static final String CIRCUIT_BREAKER_OPEN_MS_CONFIG = "circuit.breaker.open.ms";
+    private static final String CIRCUIT_BREAKER_OPEN_MS_DOC = "Time in milliseconds for which the Kubernetes API requests are rejected before trying the Kubernetes API again";
+
+    static final String METADATA_CHECK_ENABLED_CONFIG = "metadata.check.enabled";
+    private static final String METADATA_CHECK_ENABLED_DOC = "Enables checking the resource version of the previously retrieved resources using a metadata-only request before retrieving the whole resource again";
+
+    static final String PREFETCH_PATHS_CONFIG = "prefetch.paths";
+    private static final String PREFETCH_PATHS_DOC = "Comma-separated list of paths which are retrieved concurrently when the provider is configured";
+
+    static final String PREFETCH_PARALLELISM_CONFIG = "prefetch.parallelism";
+    private static final String PREFETCH_PARALLELISM_DOC = "Maximum number of paths retrieved at the same time when prefetching";
+
+    static final String PREFETCH_TTL_MS_CONFIG = "prefetch.ttl.ms";
+    private static final String PREFETCH_TTL_MS_DOC = "Time in milliseconds for which the prefetched resources are used to resolve the configuration";
+
+    static final String ASYNC_PARALLELISM_CONFIG = "async.parallelism";
+    private static final String ASYNC_PARALLELISM_DOC = "Maximum number of paths resolved at the same time by the asynchronous API";
+
+    static final String MOUNTS_CONFIG = "mounts";
+    private static final String MOUNTS_DOC = "Comma-separated list of mappings in the format <namespace>/<name>=<directory> of the resources mounted as volumes into the pod. The values of the mounted resources are read from the files in the directory instead of the Kubernetes API.";
+
+    static final String FILES_ENABLED_CONFIG = "files.enabled";
+    private static final String FILES_ENABLED_DOC = "Enables writing the large values and the binary data of Config Maps into files named by the hash of their content. The path to the file is returned instead of the value.";
+
+    static final String FILES_DIRECTORY_CONFIG = "files.directory";
+    private static final String FILES_DIRECTORY_DOC = "Directory where the large values are written. It has to be owned by the user running the provider and accessible only by this user. Defaults to a private directory created in the temporary directory for every process.";
+
+    static final String FILES_THRESHOLD_BYTES_CONFIG = "files.threshold.bytes";
+    private static final String FILES_THRESHOLD_BYTES_DOC = "Values larger than this size in bytes are written into files";
+
+    static final String RATE_LIMIT_QPS_CONFIG = "rate.limit.qps";
+    private static final String RATE_LIMIT_QPS_DOC = "Maximum number of Kubernetes API requests per second made by all configuration providers with the same rate limit configuration in the JVM. 0 disables the rate limiting.";
+
+    static final String RATE_LIMIT_BURST_CONFIG = "rate.limit.burst";
+    private static final String RATE_LIMIT_BURST_DOC = "Maximum number of Kubernetes API requests which can be made at once after a period of inactivity";
+
+    static final String PROTOBUF_ENABLED_CONFIG = "protobuf.enabled";
+    private static final String PROTOBUF_ENABLED_DOC = "Enables retrieving the resources from the Kubernetes API in the Protobuf format instead of JSON";
+
+    static final String SNAPSHOT_DIRECTORY_CONFIG = "snapshot.directory";
+    private static final String SNAPSHOT_DIRECTORY_DOC = "Directory where the encrypted snapshots of the retrieved resources are stored. The snapshots are used when the provider starts until the resources are retrieved from the Kubernetes API. When not set, the snapshots are disabled.";
+
+    static final String SNAPSHOT_ENCRYPTION_KEY_CONFIG = "snapshot.encryption.key";
+    private static final String SNAPSHOT_ENCRYPTION_KEY_DOC = "Base64 encoded 128, 192 or 256-bit AES key used to encrypt the snapshots";
+
+    static final String SNAPSHOT_MAX_AGE_MS_CONFIG = "snapshot.max.age.ms";
+    private static final String SNAPSHOT_MAX_AGE_MS_DOC = "Maximum age in milliseconds of the snapshots which can be used";
+
+    static final String INTERN_ENABLED_CONFIG = "intern.enabled";
+    private static final String INTERN_ENABLED_DOC = "Enables deduplicating identical large values in the heap using a JVM-wide pool shared by all provider instances";
+
+    static final String INTERN_THRESHOLD_BYTES_CONFIG = "intern.threshold.bytes";
+    private static final String INTERN_THRESHOLD_BYTES_DOC = "Values of at least this size in bytes are deduplicated";
+
+    static final String REFRESH_INTERVAL_MS_CONFIG = "refresh.interval.ms";
+    private static final String REFRESH_INTERVAL_MS_DOC = "Interval in milliseconds after which Kafka should resolve the configuration again. It is returned as the TTL of the configuration. When not set, no TTL is returned.";
+
+    static final String REFRESH_INTERVALS_CONFIG = "refresh.intervals";
+    private static final String REFRESH_INTERVALS_DOC = "Comma-separated list of mappings in the format <path>=<milliseconds> with the refresh intervals of individual paths. They override the refresh.interval.ms option.";
+
+    static final String REFRESH_JITTER_CONFIG = "refresh.jitter";
+    private static final String REFRESH_JITTER_DOC = "Fraction of the refresh interval by which the returned TTL is randomly shortened to spread the resolutions over time";
+
+    static final String ENDPOINTS_CONFIG = "endpoints";
+    private static final String ENDPOINTS_DOC = "Comma-separated list of URLs of the Kubernetes API server endpoints used to retrieve the resources. The requests are sent to the fastest healthy endpoint and fail over to the other endpoints. When not set, only the default Kubernetes client configuration is used.";
+
+    static final String ENDPOINTS_HEDGE_DELAY_MS_CONFIG = "endpoints.hedge.delay.ms";
+    private static final String ENDPOINTS_HEDGE_DELAY_MS_DOC = "Delay in milliseconds after which a slow request is sent also to the next endpoint and the first response is used. 0 disables the hedged requests.";
+
+    private static final ConfigDef CONFIG_DEF = new ConfigDef()
+            .define(SEPARATOR_CONFIG, ConfigDef.Type.STRING, null, ConfigDef.Importance.LOW, SEPARATOR_DOC)
+            .define(CLIENT_SHARED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.LOW, CLIENT_SHARED_DOC)
+            .define(INFORMERS_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.MEDIUM, INFORMERS_ENABLED_DOC)
+            .define(INFORMERS_SCOPE_CONFIG, ConfigDef.Type.STRING, INFORMERS_SCOPE_NAMESPACE, ConfigDef.ValidString.in(INFORMERS_SCOPE_NAMESPACE, INFORMERS_SCOPE_RESOURCE), ConfigDef.Importance.LOW, INFORMERS_SCOPE_DOC)
+            .define(CACHE_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.MEDIUM, CACHE_ENABLED_DOC)
+            .define(CACHE_MAX_ENTRIES_CONFIG, ConfigDef.Type.INT, CACHE_MAX_ENTRIES_DEFAULT, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, CACHE_MAX_ENTRIES_DOC)
+            .define(CACHE_MAX_BYTES_CONFIG, ConfigDef.Type.LONG, 64L * 1024L * 1024L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, CACHE_MAX_BYTES_DOC)
+            .define(CACHE_TTL_MS_CONFIG, ConfigDef.Type.LONG, 300_000L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, CACHE_TTL_MS_DOC)
+            .define(STALE_WHILE_REVALIDATE_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.MEDIUM, STALE_WHILE_REVALIDATE_ENABLED_DOC)
+            .define(STALE_MAX_MS_CONFIG, ConfigDef.Type.LONG, 600_000L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, STALE_MAX_MS_DOC)
+            .define(CIRCUIT_BREAKER_FAILURE_THRESHOLD_CONFIG, ConfigDef.Type.INT, 0, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, CIRCUIT_BREAKER_FAILURE_THRESHOLD_DOC)
+            .define(CIRCUIT_BREAKER_OPEN_MS_CONFIG, ConfigDef.Type.LONG, 30_000L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, CIRCUIT_BREAKER_OPEN_MS_DOC)
+            .define(METADATA_CHECK_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.LOW, METADATA_CHECK_ENABLED_DOC)
+            .define(PREFETCH_PATHS_CONFIG, ConfigDef.Type.LIST, List.of(), ConfigDef.Importance.MEDIUM, PREFETCH_PATHS_DOC)
+            .define(PREFETCH_PARALLELISM_CONFIG, ConfigDef.Type.INT, 8, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, PREFETCH_PARALLELISM_DOC)
+            .define(PREFETCH_TTL_MS_CONFIG, ConfigDef.Type.LONG, 60_000L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, PREFETCH_TTL_MS_DOC)
+            .define(ASYNC_PARALLELISM_CONFIG, ConfigDef.Type.INT, 16, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, ASYNC_PARALLELISM_DOC)
+            .define(MOUNTS_CONFIG, ConfigDef.Type.LIST, List.of(), ConfigDef.Importance.MEDIUM, MOUNTS_DOC)
+            .define(FILES_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.MEDIUM, FILES_ENABLED_DOC)
+            .define(FILES_DIRECTORY_CONFIG, ConfigDef.Type.STRING, null, ConfigDef.Importance.LOW, FILES_DIRECTORY_DOC)
+            .define(FILES_THRESHOLD_BYTES_CONFIG, ConfigDef.Type.LONG, 16L * 1024L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, FILES_THRESHOLD_BYTES_DOC)
+            .define(RATE_LIMIT_QPS_CONFIG, ConfigDef.Type.DOUBLE, 0d, ConfigDef.Range.atLeast(0), ConfigDef.Importance.MEDIUM, RATE_LIMIT_QPS_DOC)
+            .define(RATE_LIMIT_BURST_CONFIG, ConfigDef.Type.INT, 10, ConfigDef.Range.atLeast(1), ConfigDef.Importance.LOW, RATE_LIMIT_BURST_DOC)
+            .define(PROTOBUF_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.LOW, PROTOBUF_ENABLED_DOC)
+            .define(SNAPSHOT_DIRECTORY_CONFIG, ConfigDef.Type.STRING, null, ConfigDef.Importance.MEDIUM, SNAPSHOT_DIRECTORY_DOC)
+            .define(SNAPSHOT_ENCRYPTION_KEY_CONFIG, ConfigDef.Type.PASSWORD, null, ConfigDef.Importance.MEDIUM, SNAPSHOT_ENCRYPTION_KEY_DOC)
+            .define(SNAPSHOT_MAX_AGE_MS_CONFIG, ConfigDef.Type.LONG, 7L * 24L * 60L * 60L * 1_000L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, SNAPSHOT_MAX_AGE_MS_DOC)
+            .define(INTERN_ENABLED_CONFIG, ConfigDef.Type.BOOLEAN, false, ConfigDef.Importance.LOW, INTERN_ENABLED_DOC)
+            .define(INTERN_THRESHOLD_BYTES_CONFIG, ConfigDef.Type.INT, 1024, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, INTERN_THRESHOLD_BYTES_DOC)
+            .define(REFRESH_INTERVAL_MS_CONFIG, ConfigDef.Type.LONG, null, ConfigDef.Importance.MEDIUM, REFRESH_INTERVAL_MS_DOC)
+            .define(REFRESH_INTERVALS_CONFIG, ConfigDef.Type.LIST, List.of(), ConfigDef.Importance.LOW, REFRESH_INTERVALS_DOC)
+            .define(REFRESH_JITTER_CONFIG, ConfigDef.Type.DOUBLE, 0.1d, ConfigDef.Range.between(0d, 1d), ConfigDef.Importance.LOW, REFRESH_JITTER_DOC)
+            .define(ENDPOINTS_CONFIG, ConfigDef.Type.LIST, List.of(), ConfigDef.Importance.MEDIUM, ENDPOINTS_DOC)
+            .define(ENDPOINTS_HEDGE_DELAY_MS_CONFIG, ConfigDef.Type.LONG, 0L, ConfigDef.Range.atLeast(0), ConfigDef.Importance.LOW, ENDPOINTS_HEDGE_DELAY_MS_DOC);
+
+    private Config clientConfig;
+
+    /**
+     * Creates the configuration from the provider parameters. Throws Kafka ConfigException if any of the options is
+     * not valid.
+     *
+     * @param config    Configuration parameters of the provider
+     */
+    KubernetesConfigProviderConfig(Map<String, ?> config) {
+        super(CONFIG_DEF, config, false);
+    }
+
+    /**
+     * Masks the values of the password options, so the configuration can be logged
+     *
+     * @param config    Configuration parameters of the provider
+     *
+     * @return  Configuration parameters with the values of the password options hidden
+     */
+    static Map<String, ?> masked(Map<String, ?> config) {
+        Map<String, Object> masked = new TreeMap<>(config);
+
+        for (ConfigDef.ConfigKey key : CONFIG_DEF.configKeys().values()) {
+            if (key.type == ConfigDef.Type.PASSWORD && masked.get(key.name) != null)    {
+                masked.put(key.name, Password.HIDDEN);
+            }
+        }
+
+        return masked;
+    }
+
+    /**
+     * @return  Separator used to join the values of multiple keys
+     */
+    String separator() {
+        // The original value is used because the parsed value is trimmed and the separator is often a whitespace
+        Object separator = originals().get(SEPARATOR_CONFIG);
+        return separator != null ? separator.toString() : System.lineSeparator();
+    }
+
+    /**
+     * @return  True if the Kubernetes client should be shared with other provider instances. False otherwise.
+     */
+    boolean clientShared() {
+        return getBoolean(CLIENT_SHARED_CONFIG);
+    }
+
+    /**
+     * Key identifying the effective configuration of the Kubernetes client. The client is configured from the system
+     * properties, environment variables, kube config files or service account, so the key is derived from the
+     * resulting client configuration.
+     *
+     * @return  Key identifying the effective client configuration
+     */
+    String clientKey() {
+        return KubernetesClientRegistry.key(clientConfig());
+    }
+
+    /**
+     * Creates a new Kubernetes client. The client is configured from the system properties, environment variables,
+     * kube config files or service account.
+     *
+     * @return  New Kubernetes client
+     */
+    KubernetesClient createClient() {
+        return new KubernetesClientBuilder().withConfig(clientConfig()).build();
+    }
+
+    /**
+     * The client configuration is loaded only once, so the shared client is created with the same configuration as
+     * the one its key was derived from.
+     *
+     * @return  The automatically detected configuration of the Kubernetes client
+     */
+    private synchronized Config clientConfig() {
+        if (clientConfig == null)   {
+            clientConfig = Config.autoConfigure(null);
+        }
+
+        return clientConfig;
+    }
+
+    /**
+     * @return  True if the informer based cache should be used. False otherwise.
+     */
+    boolean informersEnabled() {
+        return getBoolean(INFORMERS_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  True if one informer should be used per resource. False if one informer should be used per namespace.
+     */
+    boolean informersPerResource() {
+        return INFORMERS_SCOPE_RESOURCE.equals(getString(INFORMERS_SCOPE_CONFIG));
+    }
+
+    /**
+     * @return  True if the resolved configurations should be cached. False otherwise.
+     */
+    boolean cacheEnabled() {
+        return getBoolean(CACHE_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  Maximum number of entries in the result cache
+     */
+    int cacheMaxEntries() {
+        return getInt(CACHE_MAX_ENTRIES_CONFIG);
+    }
+
+    /**
+     * @return  Maximum size of the result cache in bytes
+     */
+    long cacheMaxBytes() {
+        return getLong(CACHE_MAX_BYTES_CONFIG);
+    }
+
+    /**
+     * @return  Maximum age of the result cache entries in milliseconds
+     */
+    long cacheTtlMs() {
+        return getLong(CACHE_TTL_MS_CONFIG);
+    }
+
+    /**
+     * @return  True if the last known good resources should be served while refreshing them. False otherwise.
+     */
+    boolean staleWhileRevalidateEnabled() {
+        return getBoolean(STALE_WHILE_REVALIDATE_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  Maximum age of the last known good resources in milliseconds
+     */
+    long staleMaxMs() {
+        return getLong(STALE_MAX_MS_CONFIG);
+    }
+
+    /**
+     * @return  Number of consecutive failures opening the circuit breaker or 0 if the circuit breaker is disabled
+     */
+    int circuitBreakerFailureThreshold() {
+        return getInt(CIRCUIT_BREAKER_FAILURE_THRESHOLD_CONFIG);
+    }
+
+    /**
+     * @return  Time in milliseconds for which the circuit breaker stays open
+     */
+    long circuitBreakerOpenMs() {
+        return getLong(CIRCUIT_BREAKER_OPEN_MS_CONFIG);
+    }
+
+    /**
+     * @return  True if the resource version should be checked before retrieving the whole resource again. False otherwise.
+     */
+    boolean metadataCheckEnabled() {
+        return getBoolean(METADATA_CHECK_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  Paths which should be retrieved when the provider is configured
+     */
+    List<String> prefetchPaths() {
+        return getList(PREFETCH_PATHS_CONFIG);
+    }
+
+    /**
+     * @return  Maximum number of paths retrieved at the same time when prefetching
+     */
+    int prefetchParallelism() {
+        return getInt(PREFETCH_PARALLELISM_CONFIG);
+    }
+
+    /**
+     * @return  Time in milliseconds for which the prefetched resources are used
+     */
+    long prefetchTtlMs() {
+        return getLong(PREFETCH_TTL_MS_CONFIG);
+    }
+
+    /**
+     * @return  Maximum number of paths resolved at the same time by the asynchronous API
+     */
+    int asyncParallelism() {
+        return getInt(ASYNC_PARALLELISM_CONFIG);
+    }
+
+    /**
+     * @return  Mappings of the resources to the directories where they are mounted
+     */
+    List<String> mounts() {
+        return getList(MOUNTS_CONFIG);
+    }
+
+    /**
+     * @return  True if large values should be written into files. False otherwise.
+     */
+    boolean filesEnabled() {
+        return getBoolean(FILES_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  Directory where the large values are written or null if the private directory of the process should be
+     *          used
+     */
+    String filesDirectory() {
+        return getString(FILES_DIRECTORY_CONFIG);
+    }
+
+    /**
+     * @return  Values larger than this size in bytes are written into files
+     */
+    long filesThresholdBytes() {
+        return getLong(FILES_THRESHOLD_BYTES_CONFIG);
+    }
+
+    /**
+     * @return  Maximum number of Kubernetes API requests per second or 0 when the rate limiting is disabled
+     */
+    double rateLimitQps() {
+        return getDouble(RATE_LIMIT_QPS_CONFIG);
+    }
+
+    /**
+     * @return  Maximum number of Kubernetes API requests made at once
+     */
+    int rateLimitBurst() {
+        return getInt(RATE_LIMIT_BURST_CONFIG);
+    }
+
+    /**
+     * @return  True if the resources should be retrieved in the Protobuf format. False otherwise.
+     */
+    boolean protobufEnabled() {
+        return getBoolean(PROTOBUF_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  Directory where the snapshots are stored or null if the snapshots are disabled
+     */
+    String snapshotDirectory() {
+        return getString(SNAPSHOT_DIRECTORY_CONFIG);
+    }
+
+    /**
+     * @return  Base64 encoded key used to encrypt the snapshots
+     */
+    Password snapshotKey() {
+        return getPassword(SNAPSHOT_ENCRYPTION_KEY_CONFIG);
+    }
+
+    /**
+     * @return  Maximum age in milliseconds of the snapshots which can be used
+     */
+    long snapshotMaxAgeMs() {
+        return getLong(SNAPSHOT_MAX_AGE_MS_CONFIG);
+    }
+
+    /**
+     * @return  True if the identical large values should be deduplicated. False otherwise.
+     */
+    boolean internEnabled() {
+        return getBoolean(INTERN_ENABLED_CONFIG);
+    }
+
+    /**
+     * @return  Values of at least this size in bytes are deduplicated
+     */
+    int internThresholdBytes() {
+        return getInt(INTERN_THRESHOLD_BYTES_CONFIG);
+    }
+
+    /**
+     * @return  Refresh interval in milliseconds or null if it is not set
+     */
+    Long refreshIntervalMs() {
+        return getLong(REFRESH_INTERVAL_MS_CONFIG);
+    }
+
+    /**
+     * @return  Mappings of the paths to their refresh intervals
+     */
+    List<String> refreshIntervals() {
+        return getList(REFRESH_INTERVALS_CONFIG);
+    }
+
+    /**
+     * @return  Fraction of the refresh interval used as the jitter
+     */
+    double refreshJitter() {
+        return getDouble(REFRESH_JITTER_CONFIG);
+    }
+
+    /**
+     * @return  URLs of the Kubernetes API server endpoints
+     */
+    List<String> endpoints() {
+        return getList(ENDPOINTS_CONFIG);
+    }
+
+    /**
+     * @return  Delay in milliseconds after which the request is hedged to the next endpoint or 0 if disabled
+     */
+    long endpointsHedgeDelayMs() {
+        return getLong(ENDPOINTS_HEDGE_DELAY_MS_CONFIG);
+    }
+}
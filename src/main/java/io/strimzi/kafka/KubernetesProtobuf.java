@@ -0,0 +1,211 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.Secret;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Decodes the Secrets and Config Maps returned by the Kubernetes API in the Protobuf format
+ * (application/vnd.kubernetes.protobuf). The Protobuf responses start with a 4-byte magic number followed by the
+ * runtime.Unknown envelope which contains the type of the resource and the resource encoded as Protobuf message.
+ *
+ * Only the fields used by the configuration providers are decoded: the name, namespace, resource version and labels
+ * from the metadata and the data of the resource. All other fields are skipped.
+ */
+final class KubernetesProtobuf {
+    static final String CONTENT_TYPE = "application/vnd.kubernetes.protobuf";
+
+    private static final byte[] MAGIC = {0x6b, 0x38, 0x73, 0x00};
+
+    private KubernetesProtobuf() { }
+
+    /**
+     * Checks if the response body is in the Kubernetes Protobuf format
+     *
+     * @param body  Response body
+     *
+     * @return  True if the body starts with the Kubernetes Protobuf magic number. False otherwise.
+     */
+    static boolean isProtobuf(byte[] body)  {
+        if (body.length < MAGIC.length) {
+            return false;
+        }
+
+        for (int i = 0; i < MAGIC.length; i++)  {
+            if (body[i] != MAGIC[i])    {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decodes the Secret or Config Map
+     *
+     * @param body  Response body in the Kubernetes Protobuf format
+     *
+     * @return  The decoded resource
+     */
+    static HasMetadata decode(byte[] body)   {
+        if (!isProtobuf(body))  {
+            throw new IllegalArgumentException("Not a Kubernetes Protobuf message");
+        }
+
+        ProtobufReader envelope = new ProtobufReader(body, MAGIC.length, body.length - MAGIC.length);
+        String kind = null;
+        ProtobufReader raw = null;
+
+        while (envelope.next()) {
+            if (envelope.field() == 1) {
+                kind = kind(envelope.readMessage());
+            } else if (envelope.field() == 2) {
+                raw = envelope.readMessage();
+            } else {
+                envelope.skip();
+            }
+        }
+
+        if (raw == null)    {
+            throw new IllegalArgumentException("Kubernetes Protobuf message without the raw object");
+        } else if ("Secret".equals(kind))   {
+            return secret(raw);
+        } else if ("ConfigMap".equals(kind))    {
+            return configMap(raw);
+        } else {
+            throw new IllegalArgumentException("Unsupported kind " + kind + " in Kubernetes Protobuf message");
+        }
+    }
+
+    private static String kind(ProtobufReader typeMeta)  {
+        String kind = null;
+
+        while (typeMeta.next()) {
+            if (typeMeta.field() == 2)  {
+                kind = typeMeta.readString();
+            } else {
+                typeMeta.skip();
+            }
+        }
+
+        return kind;
+    }
+
+    private static Secret secret(ProtobufReader message)  {
+        Secret secret = new Secret();
+        Map<String, String> data = new HashMap<>();
+        Base64.Encoder encoder = Base64.getEncoder();
+
+        while (message.next()) {
+            if (message.field() == 1)   {
+                secret.setMetadata(metadata(message.readMessage()));
+            } else if (message.field() == 2) {
+                // The fabric8 Secret model keeps the data Base64 encoded
+                mapEntry(message.readMessage(), (key, value) -> data.put(key, encoder.encodeToString(value)));
+            } else if (message.field() == 3) {
+                secret.setType(message.readString());
+            } else {
+                message.skip();
+            }
+        }
+
+        secret.setApiVersion("v1");
+        secret.setKind("Secret");
+        secret.setData(data);
+
+        return secret;
+    }
+
+    private static ConfigMap configMap(ProtobufReader message)  {
+        ConfigMap configMap = new ConfigMap();
+        Map<String, String> data = new HashMap<>();
+        Map<String, String> binaryData = new HashMap<>();
+        Base64.Encoder encoder = Base64.getEncoder();
+
+        while (message.next()) {
+            if (message.field() == 1)   {
+                configMap.setMetadata(metadata(message.readMessage()));
+            } else if (message.field() == 2) {
+                stringMapEntry(message.readMessage(), data);
+            } else if (message.field() == 3) {
+                mapEntry(message.readMessage(), (key, value) -> binaryData.put(key, encoder.encodeToString(value)));
+            } else {
+                message.skip();
+            }
+        }
+
+        configMap.setApiVersion("v1");
+        configMap.setKind("ConfigMap");
+        configMap.setData(data);
+        configMap.setBinaryData(binaryData.isEmpty() ? null : binaryData);
+
+        return configMap;
+    }
+
+    private static ObjectMeta metadata(ProtobufReader message)   {
+        ObjectMeta metadata = new ObjectMeta();
+        Map<String, String> labels = new HashMap<>();
+
+        while (message.next()) {
+            switch (message.field())    {
+                case 1:
+                    metadata.setName(message.readString());
+                    break;
+                case 3:
+                    metadata.setNamespace(message.readString());
+                    break;
+                case 6:
+                    metadata.setResourceVersion(message.readString());
+                    break;
+                case 11:
+                    stringMapEntry(message.readMessage(), labels);
+                    break;
+                default:
+                    message.skip();
+            }
+        }
+
+        metadata.setLabels(labels.isEmpty() ? null : labels);
+
+        return metadata;
+    }
+
+    private static void stringMapEntry(ProtobufReader entry, Map<String, String> map) {
+        mapEntry(entry, (key, value) -> map.put(key, new String(value, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Reads a map entry. Protobuf maps are encoded as repeated messages with the key in field 1 and the value in
+     * field 2.
+     *
+     * @param entry     The map entry message
+     * @param consumer  Consumer of the key and the value
+     */
+    private static void mapEntry(ProtobufReader entry, BiConsumer<String, byte[]> consumer) {
+        String key = "";
+        byte[] value = new byte[0];
+
+        while (entry.next())    {
+            if (entry.field() == 1) {
+                key = entry.readString();
+            } else if (entry.field() == 2) {
+                value = entry.readBytes();
+            } else {
+                entry.skip();
+            }
+        }
+
+        consumer.accept(key, value);
+    }
+}
@@ -7,21 +7,65 @@ package io.strimzi.kafka;
 import io.fabric8.kubernetes.client.Client;
 import org.apache.kafka.common.config.ConfigException;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
- * Used to represent a namespaced Kubernetes resource by its namespace and name
+ * Used to represent a namespaced Kubernetes resource by its namespace and name, or a set of Kubernetes resources by
+ * their namespace and label selector
  */
 final class KubernetesResourceIdentifier {
+    private static final Pattern SELECTOR_PATH = Pattern.compile("(?:([a-z0-9.-]+)/)?\\?(.*)");
+    private static final Pattern LABEL = Pattern.compile("([A-Za-z0-9._/-]+)=([A-Za-z0-9._-]*)");
+
     private final String namespace;
     private final String name;
+    private final SortedMap<String, String> labels;
 
-    private KubernetesResourceIdentifier(String namespace, String name) {
+    private KubernetesResourceIdentifier(String namespace, String name, SortedMap<String, String> labels) {
         this.namespace = namespace;
         this.name = name;
+        this.labels = labels;
+    }
+
+    private KubernetesResourceIdentifier(String namespace, String name) {
+        this(namespace, name, null);
+    }
+
+    /**
+     * Creates the resource identifier from the namespace and name
+     *
+     * @param namespace Namespace of the resource
+     * @param name      Name of the resource
+     *
+     * @return          Instance of the KubernetesResourceIdentifier class
+     */
+    static KubernetesResourceIdentifier of(String namespace, String name)    {
+        return new KubernetesResourceIdentifier(namespace, name);
+    }
+
+    /**
+     * Creates the identifier of the resources matching the label selector
+     *
+     * @param namespace Namespace of the resources
+     * @param labels    Labels which the resources have to have
+     *
+     * @return          Instance of the KubernetesResourceIdentifier class
+     */
+    static KubernetesResourceIdentifier withLabels(String namespace, Map<String, String> labels)    {
+        return new KubernetesResourceIdentifier(namespace, null, Collections.unmodifiableSortedMap(new TreeMap<>(labels)));
     }
 
     /**
      * Parses the path to the Kubernetes resource in the NAMESPACE/RESOURCE-NAME format or RESOURCE-NAME for use with
-     * the default namespace. Throws Kafka ConfigException if it fails to parse the resource identifier.
+     * the default namespace. Multiple resources can be selected using a label selector in the
+     * NAMESPACE/?LABEL=VALUE,LABEL2=VALUE2 format or ?LABEL=VALUE,LABEL2=VALUE2 for use with the default namespace.
+     * Throws Kafka ConfigException if it fails to parse the resource identifier.
      *
      * @param client    Instance of the Kubernetes Client used to get the default namespace if needed
      * @param path      The Kubernetes resource path
@@ -29,6 +73,10 @@ final class KubernetesResourceIdentifier {
      * @return          Instance of the KubernetesResourceIdentifier class
      */
     public static KubernetesResourceIdentifier fromConfigString(Client client, String path)    {
+        if (path.indexOf('?') != -1)    {
+            return fromSelectorString(client, path);
+        }
+
         if (!path.matches("([a-z0-9.-]+/)?[a-z0-9.-]+")) {
             throw new ConfigException("Invalid path " + path + ". It has to be in format <namespace>/<secret> (or <secret> for default namespace).");
         }
@@ -46,6 +94,30 @@ final class KubernetesResourceIdentifier {
         }
     }
 
+    private static KubernetesResourceIdentifier fromSelectorString(Client client, String path)    {
+        Matcher matcher = SELECTOR_PATH.matcher(path);
+
+        if (!matcher.matches() || matcher.group(2).isEmpty()) {
+            throw new ConfigException("Invalid path " + path + ". It has to be in format <namespace>/?<label>=<value>,... (or ?<label>=<value>,... for default namespace).");
+        }
+
+        SortedMap<String, String> labels = new TreeMap<>();
+
+        for (String label : matcher.group(2).split(",", -1))   {
+            Matcher labelMatcher = LABEL.matcher(label);
+
+            if (!labelMatcher.matches())    {
+                throw new ConfigException("Invalid label selector " + label + " in path " + path + ". It has to be in format <label>=<value>.");
+            }
+
+            labels.put(labelMatcher.group(1), labelMatcher.group(2));
+        }
+
+        String namespace = matcher.group(1) != null ? matcher.group(1) : client.getNamespace();
+
+        return withLabels(namespace, labels);
+    }
+
     /**
      * Returns the namespace of the resource
      *
@@ -58,9 +130,54 @@ final class KubernetesResourceIdentifier {
     /**
      * Returns the name of the resource
      *
-     * @return  Name of the resource
+     * @return  Name of the resource or null if the resources are selected using labels
      */
     public String getName() {
         return name;
     }
+
+    /**
+     * Returns the labels used to select the resources
+     *
+     * @return  Labels of the resources or null if the resource is selected by its name
+     */
+    public Map<String, String> getLabels() {
+        return labels;
+    }
+
+    /**
+     * @return  True if the resources are selected using labels. False if a single resource is selected by its name.
+     */
+    public boolean isLabelSelector() {
+        return labels != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o == null || getClass() != o.getClass()) {
+            return false;
+        } else {
+            KubernetesResourceIdentifier that = (KubernetesResourceIdentifier) o;
+            return Objects.equals(namespace, that.namespace) && Objects.equals(name, that.name) && Objects.equals(labels, that.labels);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(namespace, name, labels);
+    }
+
+    @Override
+    public String toString() {
+        if (labels != null) {
+            StringBuilder selector = new StringBuilder();
+            labels.forEach((label, value) -> selector.append(selector.length() > 0 ? "," : "").append(label).append('=').append(value));
+
+            return namespace + "/?" + selector;
+        } else {
+            return namespace + "/" + name;
+        }
+    }
 }
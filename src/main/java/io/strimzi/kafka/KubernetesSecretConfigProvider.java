@@ -6,12 +6,10 @@ package io.strimzi.kafka;
 
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretList;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -26,19 +24,22 @@ public final class KubernetesSecretConfigProvider extends AbstractKubernetesConf
     }
 
     @Override
-    protected MixedOperation<Secret, SecretList, Resource<Secret>> operator()    {
+    protected MixedOperation<Secret, SecretList, Resource<Secret>> operator(KubernetesClient client)    {
         return client.secrets();
     }
 
+    /**
+     * Returns the values of the Secret. The values are decoded lazily only when they are requested. The decoded
+     * values are reused as long as the resource version of the Secret does not change (for at most cache.max.entries
+     * most recently used Secrets). When enabled, the large values are written into files and the paths to the files
+     * are returned instead or they are deduplicated using the value pool.
+     *
+     * @param resource  The Secret
+     *
+     * @return  Map with the decoded values
+     */
     @Override
     protected Map<String, String> valuesFromResource(Secret resource) {
-        Map<String, String> encodedValues = resource.getData();
-        Map<String, String> values = new HashMap<>(encodedValues.size());
-
-        for (Map.Entry<String, String> entry : encodedValues.entrySet())   {
-            values.put(entry.getKey(), new String(Base64.getDecoder().decode(entry.getValue()), StandardCharsets.UTF_8));
-        }
-
-        return values;
+        return versionedValues(resource, () -> new LazyDecodedValues(resource.getMetadata().getResourceVersion(), resource.getData(), largeValues()));
     }
 }
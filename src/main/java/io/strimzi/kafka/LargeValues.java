@@ -0,0 +1,110 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Handles the large configuration values. Depending on the configuration, the large values are written into the
+ * content-addressed files or deduplicated in the heap using the JVM-wide value pool. When both are enabled, the
+ * values written into the files are not pooled as only the paths are kept in the heap.
+ */
+final class LargeValues {
+    private final ContentAddressedFiles files;
+    private final ValuePool pool;
+    private final int poolThresholdBytes;
+
+    /**
+     * Creates the large values handling
+     *
+     * @param files                 Content-addressed files or null if the values should not be written into files
+     * @param pool                  Value pool or null if the values should not be deduplicated
+     * @param poolThresholdBytes    Values of at least this size in bytes are deduplicated
+     */
+    LargeValues(ContentAddressedFiles files, ValuePool pool, int poolThresholdBytes) {
+        this.files = files;
+        this.pool = pool;
+        this.poolThresholdBytes = poolThresholdBytes;
+    }
+
+    /**
+     * Creates the large values handling from the provider configuration
+     *
+     * @param config    Configuration of the provider
+     *
+     * @return  The large values handling or null if both the files and the value pool are disabled
+     */
+    static LargeValues fromConfig(KubernetesConfigProviderConfig config)   {
+        ContentAddressedFiles files = ContentAddressedFiles.fromConfig(config);
+        ValuePool pool = config.internEnabled() ? ValuePool.SHARED : null;
+
+        if (files == null && pool == null)  {
+            return null;
+        } else {
+            return new LargeValues(files, pool, config.internThresholdBytes());
+        }
+    }
+
+    /**
+     * @return  True if the values can be written into files. False otherwise.
+     */
+    boolean filesEnabled()  {
+        return files != null;
+    }
+
+    /**
+     * @return  The value pool or null if the values are not deduplicated
+     */
+    ValuePool pool()    {
+        return pool;
+    }
+
+    /**
+     * Returns the value decoded from the bytes, the pooled value with the same content or the path to the file with
+     * the value
+     *
+     * @param content   UTF-8 encoded value
+     *
+     * @return  The value or the path to the file
+     */
+    String fromBytes(byte[] content)    {
+        if (files != null && files.isLarge(content.length))   {
+            return files.write(content);
+        } else if (pool != null && content.length >= poolThresholdBytes)    {
+            return pool.intern(content);
+        } else {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Returns the value, the pooled value with the same content or the path to the file with the value
+     *
+     * @param value     The value
+     *
+     * @return  The value or the path to the file
+     */
+    String fromString(String value)    {
+        String valueOrPath = files != null ? files.valueOrPath(value) : value;
+
+        // The length of the value in characters is used to avoid encoding the value only to find its size
+        if (pool != null && value != null && value.length() >= poolThresholdBytes && value.equals(valueOrPath))  {
+            return pool.intern(value);
+        } else {
+            return valueOrPath;
+        }
+    }
+
+    /**
+     * Writes the binary value into the content-addressed file
+     *
+     * @param content   The binary value
+     *
+     * @return  Path to the file
+     */
+    String binary(byte[] content)   {
+        return files.write(content);
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only map of the Secret values which decodes the Base64 encoded values lazily. Only the values which are
+ * actually requested are decoded and every value is decoded only once. The keys are kept sorted, so the key set can
+ * be used to find the keys matching the key patterns without sorting them again.
+ */
+final class LazyDecodedValues extends AbstractMap<String, String> {
+    private final String resourceVersion;
+    private final Map<String, String> encodedValues;
+    private final NavigableSet<String> sortedKeys;
+    private final Map<String, String> decodedValues = new ConcurrentHashMap<>();
+    private final LargeValues largeValues;
+
+    /**
+     * Creates the lazily decoded values
+     *
+     * @param resourceVersion   Resource version of the Secret
+     * @param encodedValues     Base64 encoded values
+     */
+    LazyDecodedValues(String resourceVersion, Map<String, String> encodedValues) {
+        this(resourceVersion, encodedValues, null);
+    }
+
+    /**
+     * Creates the lazily decoded values which write the large values into files or deduplicate them
+     *
+     * @param resourceVersion   Resource version of the Secret
+     * @param encodedValues     Base64 encoded values
+     * @param largeValues       Handling of the large values or null to keep all decoded values as they are
+     */
+    LazyDecodedValues(String resourceVersion, Map<String, String> encodedValues, LargeValues largeValues) {
+        this.resourceVersion = resourceVersion;
+        this.largeValues = largeValues;
+        this.encodedValues = encodedValues != null ? encodedValues : Map.of();
+        this.sortedKeys = Collections.unmodifiableNavigableSet(new TreeSet<>(this.encodedValues.keySet()));
+    }
+
+    /**
+     * @return  Resource version of the Secret the values belong to
+     */
+    String resourceVersion() {
+        return resourceVersion;
+    }
+
+    @Override
+    public String get(Object key) {
+        String encoded = encodedValues.get(key);
+
+        if (encoded == null)    {
+            return null;
+        } else {
+            return decodedValues.computeIfAbsent((String) key, ignored -> decode(encoded));
+        }
+    }
+
+    private String decode(String encoded)   {
+        byte[] decoded = Base64.getDecoder().decode(encoded);
+
+        if (largeValues != null)   {
+            return largeValues.fromBytes(decoded);
+        } else {
+            return new String(decoded, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return encodedValues.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return encodedValues.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return sortedKeys;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                Iterator<String> keys = sortedKeys.iterator();
+
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        String key = keys.next();
+                        return new SimpleImmutableEntry<>(key, get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return sortedKeys.size();
+            }
+        };
+    }
+}
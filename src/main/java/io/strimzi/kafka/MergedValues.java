@@ -0,0 +1,152 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Read-only view merging the values of multiple Kubernetes resources into a single key-space. The keys are named
+ * [resource-name]/[key]. The keys of Secrets and Config Maps cannot contain the / character, so the merged keys are
+ * unambiguous and key patterns such as * /password (without the space) select the same key from all resources. The
+ * values are not copied, so values of Secrets are still decoded only when they are requested.
+ */
+final class MergedValues extends AbstractMap<String, String> {
+    private final Map<String, Map<String, String>> valuesByResource;
+    private final NavigableSet<String> sortedKeys;
+
+    /**
+     * Creates the merged values
+     *
+     * @param valuesByResource  Values of the resources keyed by the resource name
+     */
+    MergedValues(Map<String, Map<String, String>> valuesByResource) {
+        this.valuesByResource = valuesByResource;
+
+        TreeSet<String> keys = new TreeSet<>();
+        for (Map.Entry<String, Map<String, String>> resource : valuesByResource.entrySet())    {
+            for (String key : resource.getValue().keySet()) {
+                keys.add(resource.getKey() + "/" + key);
+            }
+        }
+
+        this.sortedKeys = Collections.unmodifiableNavigableSet(keys);
+    }
+
+    /**
+     * Merges the values of multiple resources
+     *
+     * @param resources             The resources
+     * @param valuesFromResource    Function returning the values of a resource
+     *
+     * @return  Merged values of the resources
+     *
+     * @param <T>   Resource
+     */
+    static <T extends HasMetadata> MergedValues of(List<T> resources, Function<T, Map<String, String>> valuesFromResource)  {
+        Map<String, Map<String, String>> valuesByResource = new HashMap<>(resources.size());
+
+        for (T resource : resources)    {
+            valuesByResource.put(resource.getMetadata().getName(), valuesFromResource.apply(resource));
+        }
+
+        return new MergedValues(valuesByResource);
+    }
+
+    /**
+     * Combines the resource versions of multiple resources into a single version which changes whenever any of the
+     * resources changes, is added or is removed.
+     *
+     * @param resources     The resources
+     *
+     * @return  The combined resource version or null if any of the resources does not have a resource version
+     */
+    static String resourceVersion(List<? extends HasMetadata> resources)  {
+        TreeMap<String, String> versions = new TreeMap<>();
+
+        for (HasMetadata resource : resources)  {
+            if (resource.getMetadata().getResourceVersion() == null)    {
+                return null;
+            }
+
+            versions.put(resource.getMetadata().getName(), resource.getMetadata().getResourceVersion());
+        }
+
+        return versions.toString();
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String))   {
+            return null;
+        }
+
+        String mergedKey = (String) key;
+        int separator = mergedKey.indexOf('/');
+
+        if (separator == -1)    {
+            return null;
+        }
+
+        Map<String, String> values = valuesByResource.get(mergedKey.substring(0, separator));
+
+        return values != null ? values.get(mergedKey.substring(separator + 1)) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return sortedKeys.contains(key);
+    }
+
+    @Override
+    public int size() {
+        return sortedKeys.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return sortedKeys;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                Iterator<String> keys = sortedKeys.iterator();
+
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return keys.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        String key = keys.next();
+                        return new SimpleImmutableEntry<>(key, get(key));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return sortedKeys.size();
+            }
+        };
+    }
+}
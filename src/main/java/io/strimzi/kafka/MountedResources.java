@@ -0,0 +1,236 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Secrets and Config Maps mounted as volumes into the pod. Their values are read from the files in the mount
+ * directory instead of the Kubernetes API. The values are kept in memory until the directory changes. The kubelet
+ * updates the mounted volumes by atomically swapping the ..data symbolic link, which is detected using a watch service.
+ *
+ * When the mount directory does not exist, the values are not served from the file system and the resource is
+ * retrieved from the Kubernetes API instead.
+ */
+final class MountedResources {
+    private static final Logger LOG = LoggerFactory.getLogger(MountedResources.class);
+
+    private final String kind;
+    private final Map<KubernetesResourceIdentifier, Mount> mounts;
+    private final Map<WatchKey, Mount> watchedMounts = new ConcurrentHashMap<>();
+    private final WatchService watchService;
+
+    private MountedResources(String kind, Map<KubernetesResourceIdentifier, Mount> mounts, WatchService watchService) {
+        this.kind = kind;
+        this.mounts = mounts;
+        this.watchService = watchService;
+
+        Thread watcher = new Thread(this::watch, "kubernetes-config-provider-mounts-" + kind);
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Creates the mounted resources from the configured mappings
+     *
+     * @param kind          Kind of the Kubernetes resource
+     * @param mappings      Mappings in the format [namespace/]name=directory
+     * @param parser        Function parsing the path of the resource
+     *
+     * @return  The mounted resources or null if no mappings are configured
+     */
+    static MountedResources fromMappings(String kind, List<String> mappings, Function<String, KubernetesResourceIdentifier> parser)    {
+        if (mappings.isEmpty()) {
+            return null;
+        }
+
+        Map<KubernetesResourceIdentifier, Mount> mounts = new ConcurrentHashMap<>(mappings.size());
+
+        for (String mapping : mappings) {
+            int separator = mapping.indexOf('=');
+
+            if (separator <= 0 || separator == mapping.length() - 1)  {
+                throw new ConfigException("Invalid mount mapping " + mapping + ". It has to be in format <namespace>/<name>=<directory>.");
+            }
+
+            KubernetesResourceIdentifier resourceIdentifier = parser.apply(mapping.substring(0, separator).trim());
+
+            if (resourceIdentifier.isLabelSelector())   {
+                throw new ConfigException("Invalid mount mapping " + mapping + ". Label selectors cannot be mapped to a directory.");
+            }
+
+            mounts.put(resourceIdentifier, new Mount(Paths.get(mapping.substring(separator + 1).trim())));
+        }
+
+        try {
+            return new MountedResources(kind, mounts, Paths.get("").getFileSystem().newWatchService());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create the watch service for the mounted " + kind + " resources", e);
+        }
+    }
+
+    /**
+     * Gets the values of the mounted resource
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The values keyed by the file names or null if the resource is not mounted
+     */
+    Map<String, String> values(KubernetesResourceIdentifier resourceIdentifier)    {
+        Mount mount = mounts.get(resourceIdentifier);
+
+        if (mount == null)  {
+            return null;
+        }
+
+        Map<String, String> values = mount.values;
+
+        if (values == null && Files.isDirectory(mount.directory)) {
+            watch(mount);
+
+            long generation = mount.generation.get();
+
+            try {
+                values = readValues(mount.directory);
+            } catch (IOException | UncheckedIOException e) {
+                LOG.warn("Failed to read the mounted {} {} from {}. It will be retrieved from the Kubernetes API.", kind, resourceIdentifier, mount.directory, e);
+                return null;
+            }
+
+            // Keep the values only when the directory did not change while reading them
+            if (mount.generation.get() == generation)   {
+                mount.values = values;
+            }
+        } else if (values == null) {
+            LOG.debug("Mount directory {} of {} {} does not exist. It will be retrieved from the Kubernetes API.", mount.directory, kind, resourceIdentifier);
+        }
+
+        return values;
+    }
+
+    /**
+     * Stops watching the mount directories
+     */
+    void close()    {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOG.warn("Failed to close the watch service for the mounted {} resources", kind, e);
+        }
+    }
+
+    private void watch(Mount mount) {
+        synchronized (mount)    {
+            if (!mount.watched) {
+                try {
+                    watchedMounts.put(mount.directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), mount);
+                    mount.watched = true;
+                } catch (IOException e) {
+                    LOG.warn("Failed to watch the mount directory {}. Changes to the mounted {} will not be detected.", mount.directory, kind, e);
+                }
+            }
+        }
+    }
+
+    private void watch()   {
+        try {
+            while (true)    {
+                WatchKey key = watchService.take();
+                Mount mount = watchedMounts.get(key);
+                key.pollEvents();
+
+                if (mount != null)  {
+                    LOG.debug("Mount directory {} changed", mount.directory);
+                    mount.generation.incrementAndGet();
+                    mount.values = null;
+                }
+
+                if (!key.reset() && mount != null)  {
+                    // The directory was deleted => it has to be registered again once it exists
+                    watchedMounts.remove(key);
+
+                    synchronized (mount)    {
+                        mount.watched = false;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            LOG.debug("Watch service for the mounted {} resources was closed", kind);
+        }
+    }
+
+    /**
+     * Reads the values from the files in the directory. Hidden entries created by the kubelet (such as ..data) and
+     * subdirectories are ignored.
+     *
+     * @param directory     The mount directory
+     *
+     * @return  The values keyed by the file names
+     *
+     * @throws IOException  When the files cannot be read
+     */
+    private static Map<String, String> readValues(Path directory) throws IOException {
+        Map<String, String> values = new TreeMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String key = file.getFileName().toString();
+
+                if (!key.startsWith("..") && Files.isRegularFile(file))   {
+                    values.put(key, readFile(file));
+                }
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Reads the file. Malformed UTF-8 sequences (for example in binary keys) are replaced instead of failing, the same
+     * way as when decoding the values from the Kubernetes API.
+     */
+    private static String readFile(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Mount directory of a single resource
+     */
+    private static final class Mount {
+        private final Path directory;
+        private final AtomicLong generation = new AtomicLong(0);
+        private volatile Map<String, String> values;
+        private boolean watched = false;
+
+        Mount(Path directory) {
+            this.directory = directory;
+        }
+    }
+}
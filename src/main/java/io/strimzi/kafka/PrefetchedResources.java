@@ -0,0 +1,116 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Resources retrieved concurrently when the provider is configured. They are used for the configuration resolved
+ * shortly after the provider is configured (for example when a Kafka broker or connector is starting) instead of
+ * retrieving the resources one by one. The prefetched resources expire after the configured time.
+ *
+ * @param <T>   Resource
+ */
+final class PrefetchedResources<T> {
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchedResources.class);
+
+    private final Map<KubernetesResourceIdentifier, Object> resources = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+    private final long expiresAt;
+
+    private PrefetchedResources(LongSupplier clock, long expiresAt) {
+        this.clock = clock;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Retrieves the resources concurrently and waits until all of them are retrieved. Resources which fail to be
+     * retrieved are ignored, and they will be retrieved again when they are used.
+     *
+     * @param kind                  Kind of the Kubernetes resource
+     * @param resourceIdentifiers   Identifiers of the resources or of the label selectors
+     * @param parallelism           Maximum number of resources retrieved at the same time
+     * @param ttlMs                 Time in milliseconds for which the prefetched resources are used
+     * @param clock                 Clock returning the current time in milliseconds
+     * @param get                   Function retrieving a single resource
+     * @param list                  Function listing the resources matching a label selector
+     *
+     * @return  The prefetched resources
+     *
+     * @param <T>   Resource
+     */
+    static <T> PrefetchedResources<T> prefetch(String kind, List<KubernetesResourceIdentifier> resourceIdentifiers, int parallelism, long ttlMs, LongSupplier clock,
+                                               Function<KubernetesResourceIdentifier, T> get, Function<KubernetesResourceIdentifier, List<T>> list) {
+        Map<KubernetesResourceIdentifier, Object> resources = new ConcurrentHashMap<>();
+        LOG.info("Prefetching {} {} paths", resourceIdentifiers.size(), kind);
+
+        ExecutorService executor = ProviderExecutors.newBoundedExecutor("kubernetes-config-provider-prefetch", Math.min(parallelism, resourceIdentifiers.size()));
+        List<CompletableFuture<Void>> futures = new ArrayList<>(resourceIdentifiers.size());
+
+        try {
+            for (KubernetesResourceIdentifier resourceIdentifier : resourceIdentifiers)  {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        resources.put(resourceIdentifier, resourceIdentifier.isLabelSelector() ? list.apply(resourceIdentifier) : get.apply(resourceIdentifier));
+                    } catch (RuntimeException e) {
+                        LOG.warn("Failed to prefetch {} {}", kind, resourceIdentifier, e);
+                    }
+                }, executor));
+            }
+
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        PrefetchedResources<T> prefetched = new PrefetchedResources<>(clock, clock.getAsLong() + ttlMs);
+        prefetched.resources.putAll(resources);
+
+        return prefetched;
+    }
+
+    /**
+     * Gets the prefetched resource
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The prefetched resource or null if it was not prefetched or expired
+     */
+    @SuppressWarnings("unchecked")
+    T get(KubernetesResourceIdentifier resourceIdentifier)   {
+        return expired() ? null : (T) resources.get(resourceIdentifier);
+    }
+
+    /**
+     * Gets the prefetched resources matching the label selector
+     *
+     * @param resourceIdentifier    Identifier of the label selector
+     *
+     * @return  The prefetched resources or null if they were not prefetched or expired
+     */
+    @SuppressWarnings("unchecked")
+    List<T> list(KubernetesResourceIdentifier resourceIdentifier)   {
+        return expired() ? null : (List<T>) resources.get(resourceIdentifier);
+    }
+
+    private boolean expired()   {
+        if (clock.getAsLong() >= expiresAt)  {
+            resources.clear();
+            return true;
+        } else {
+            return false;
+        }
+    }
+}
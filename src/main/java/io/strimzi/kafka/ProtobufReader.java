@@ -0,0 +1,169 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal reader of the Protocol Buffers wire format. It supports only what is needed to decode the Kubernetes
+ * Secrets and Config Maps: varints, length-delimited fields (strings, bytes and embedded messages) and skipping of
+ * the fixed-size fields.
+ */
+final class ProtobufReader {
+    static final int WIRE_TYPE_VARINT = 0;
+    static final int WIRE_TYPE_FIXED64 = 1;
+    static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+    static final int WIRE_TYPE_FIXED32 = 5;
+
+    private final byte[] buffer;
+    private final int limit;
+    private int position;
+    private int tag;
+
+    /**
+     * Creates the reader
+     *
+     * @param buffer    Buffer with the message
+     * @param offset    Offset where the message starts
+     * @param length    Length of the message
+     */
+    ProtobufReader(byte[] buffer, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > buffer.length)  {
+            throw new IllegalArgumentException("Invalid Protobuf message bounds");
+        }
+
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    /**
+     * Reads the tag of the next field
+     *
+     * @return  True if there is a next field. False when the end of the message was reached.
+     */
+    boolean next()  {
+        if (position >= limit)  {
+            return false;
+        }
+
+        tag = (int) readVarint();
+        return true;
+    }
+
+    /**
+     * @return  Number of the current field
+     */
+    int field() {
+        return tag >>> 3;
+    }
+
+    /**
+     * @return  Wire type of the current field
+     */
+    int wireType() {
+        return tag & 0x7;
+    }
+
+    /**
+     * @return  The varint value of the current field
+     */
+    long readVarint()   {
+        long value = 0L;
+
+        for (int shift = 0; shift < 64; shift += 7)  {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)    {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed Protobuf varint");
+    }
+
+    /**
+     * @return  The string value of the current length-delimited field
+     */
+    String readString() {
+        int length = readLength();
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+
+        return value;
+    }
+
+    /**
+     * @return  The bytes of the current length-delimited field
+     */
+    byte[] readBytes()  {
+        int length = readLength();
+        byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+
+        return value;
+    }
+
+    /**
+     * @return  Reader of the embedded message in the current length-delimited field
+     */
+    ProtobufReader readMessage()    {
+        int length = readLength();
+        ProtobufReader message = new ProtobufReader(buffer, position, length);
+        position += length;
+
+        return message;
+    }
+
+    /**
+     * Skips the value of the current field
+     */
+    void skip() {
+        switch (wireType()) {
+            case WIRE_TYPE_VARINT:
+                readVarint();
+                break;
+            case WIRE_TYPE_FIXED64:
+                advance(8);
+                break;
+            case WIRE_TYPE_LENGTH_DELIMITED:
+                advance(readLength());
+                break;
+            case WIRE_TYPE_FIXED32:
+                advance(4);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported Protobuf wire type " + wireType());
+        }
+    }
+
+    private int readLength()    {
+        long length = readVarint();
+
+        if (length < 0 || length > limit - position) {
+            throw new IllegalArgumentException("Malformed Protobuf length " + length);
+        }
+
+        return (int) length;
+    }
+
+    private byte readByte() {
+        if (position >= limit)  {
+            throw new IllegalArgumentException("Truncated Protobuf message");
+        }
+
+        return buffer[position++];
+    }
+
+    private void advance(int bytes) {
+        if (bytes > limit - position)   {
+            throw new IllegalArgumentException("Truncated Protobuf message");
+        }
+
+        position += bytes;
+    }
+}
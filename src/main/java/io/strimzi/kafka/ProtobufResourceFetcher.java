@@ -0,0 +1,100 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.HttpResponse;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Gets the Secrets and Config Maps from the Kubernetes API in the Protobuf format instead of JSON. Decoding the
+ * Protobuf response is cheaper than parsing the JSON, especially for large resources. When the Kubernetes API (or a
+ * proxy in front of it) responds with JSON instead, the JSON response is parsed as usual.
+ */
+final class ProtobufResourceFetcher {
+    private static final String ACCEPT_PROTOBUF = KubernetesProtobuf.CONTENT_TYPE + ",application/json";
+
+    private final KubernetesClient client;
+    private final String kind;
+
+    /**
+     * Creates the Protobuf fetcher
+     *
+     * @param client    Kubernetes client
+     * @param kind      Kind of the Kubernetes resource (Secret or ConfigMap)
+     */
+    ProtobufResourceFetcher(KubernetesClient client, String kind) {
+        this.client = client;
+        this.kind = kind;
+    }
+
+    /**
+     * Creates the function getting the resources in the Protobuf format using the given Kubernetes client
+     *
+     * @param kind      Kind of the Kubernetes resource (Secret or ConfigMap)
+     *
+     * @return  Function returning the resource or null if it does not exist
+     *
+     * @param <T>   Resource
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends HasMetadata> BiFunction<KubernetesClient, KubernetesResourceIdentifier, T> getter(String kind)    {
+        return (client, resourceIdentifier) -> (T) new ProtobufResourceFetcher(client, kind).get(resourceIdentifier);
+    }
+
+    /**
+     * Gets the resource
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The resource or null if the resource does not exist
+     */
+    HasMetadata get(KubernetesResourceIdentifier resourceIdentifier)  {
+        HttpRequest request = client.getHttpClient().newHttpRequestBuilder()
+                .uri(ResourceMetadataFetcher.coreApiUrl(client, kind, resourceIdentifier))
+                .header("Accept", ACCEPT_PROTOBUF)
+                .timeout(client.getConfiguration().getRequestTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+
+        HttpResponse<byte[]> response;
+        try {
+            response = client.getHttpClient().sendAsync(request, byte[].class).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KubernetesClientException("Interrupted while getting " + resourceIdentifier, e);
+        } catch (ExecutionException e) {
+            throw new KubernetesClientException("Failed to get " + resourceIdentifier, e.getCause());
+        }
+
+        if (response.code() == HttpURLConnection.HTTP_NOT_FOUND)   {
+            return null;
+        } else if (!response.isSuccessful())    {
+            // The status code is kept, so client errors such as missing permissions are not retried on other endpoints
+            throw new KubernetesClientException("Failed to get " + resourceIdentifier + ": " + response.code() + " " + response.message(), response.code(), null);
+        }
+
+        return decode(response.body(), resourceIdentifier);
+    }
+
+    private HasMetadata decode(byte[] body, KubernetesResourceIdentifier resourceIdentifier)    {
+        try {
+            if (KubernetesProtobuf.isProtobuf(body))    {
+                return KubernetesProtobuf.decode(body);
+            } else {
+                return client.getKubernetesSerialization().unmarshal(new String(body, StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new KubernetesClientException("Failed to decode " + kind + " " + resourceIdentifier, e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executors used by the configuration providers to call the Kubernetes API concurrently. Virtual threads
+ * are used when the JVM supports them (Java 21 and newer). Otherwise, daemon platform threads are used.
+ */
+final class ProviderExecutors {
+    private static final Logger LOG = LoggerFactory.getLogger(ProviderExecutors.class);
+
+    private ProviderExecutors() { }
+
+    /**
+     * Creates an executor running at most given number of tasks at the same time
+     *
+     * @param name          Name used for the threads
+     * @param parallelism   Maximum number of tasks running at the same time
+     *
+     * @return  The executor
+     */
+    static ExecutorService newBoundedExecutor(String name, int parallelism)   {
+        return Executors.newFixedThreadPool(parallelism, threadFactory(name));
+    }
+
+    /**
+     * Creates an executor starting a new thread for every task which cannot be run by an idle thread
+     *
+     * @param name          Name used for the threads
+     *
+     * @return  The executor
+     */
+    static ExecutorService newUnboundedExecutor(String name)   {
+        return Executors.newCachedThreadPool(threadFactory(name));
+    }
+
+    private static ThreadFactory threadFactory(String name)    {
+        ThreadFactory virtual = virtualThreadFactory();
+
+        if (virtual != null)    {
+            return virtual;
+        } else {
+            AtomicInteger counter = new AtomicInteger(0);
+
+            return runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    /**
+     * Creates the virtual thread factory using reflection, because the provider is built for Java 11
+     *
+     * @return  Virtual thread factory or null if virtual threads are not supported
+     */
+    private static ThreadFactory virtualThreadFactory()    {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.debug("Virtual threads are not available", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.JmxReporter;
+import org.apache.kafka.common.metrics.KafkaMetricsContext;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.PluginMetrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Percentile;
+import org.apache.kafka.common.metrics.stats.Percentiles;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.utils.Time;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics of the configuration provider. The metrics are tagged with the kind of the resource and with the namespace.
+ *
+ * When Kafka passes the plugin metrics to the provider (for example in Kafka Connect), the metrics are registered
+ * there and reported together with the other metrics of the Kafka component. Otherwise, they are registered in a
+ * JVM-wide Kafka Metrics registry reported through JMX with the kafka.config.provider prefix. The JVM-wide registry is
+ * shared by all provider instances, so the metrics of the providers with the same kind are aggregated.
+ *
+ * The gauges (such as the result cache statistics) are tagged only with the kind of the resource. In the JVM-wide
+ * registry, the values of the provider instances with the same kind are summed up.
+ */
+final class ProviderMetrics {
+    static final String JMX_PREFIX = "kafka.config.provider";
+    static final String GROUP = "kubernetes-config-provider-metrics";
+
+    // Upper bounds of the histograms used for the percentiles
+    private static final double MAX_API_LATENCY_MS = 10_000d;
+    private static final double MAX_PROCESSING_TIME_MS = 1_000d;
+    private static final double MAX_QUEUE_WAIT_MS = 60_000d;
+    private static final int HISTOGRAM_SIZE_BYTES = 4_000;
+
+    private static Metrics sharedMetrics;
+    private static final Map<String, ProviderSensors> SHARED_SENSORS = new ConcurrentHashMap<>();
+    private static final Map<String, Set<LongSupplier>> SHARED_GAUGES = new ConcurrentHashMap<>();
+
+    private final String kind;
+    private final Map<String, ProviderSensors> pluginSensors = new ConcurrentHashMap<>();
+    private final List<Gauge> gauges = new ArrayList<>();
+    private volatile PluginMetrics pluginMetrics;
+
+    /**
+     * Creates the provider metrics
+     *
+     * @param kind  Kind of the Kubernetes resource
+     */
+    ProviderMetrics(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Registers the metrics in the plugin metrics provided by Kafka instead of the JVM-wide registry
+     *
+     * @param pluginMetrics     Plugin metrics
+     */
+    synchronized void withPluginMetrics(PluginMetrics pluginMetrics)  {
+        // The gauges added before the plugin metrics were provided are moved from the JVM-wide registry
+        removeSharedGauges();
+        this.pluginMetrics = pluginMetrics;
+        gauges.forEach(this::register);
+    }
+
+    /**
+     * Adds a gauge with a value of this provider instance
+     *
+     * @param name          Name of the metric
+     * @param description   Description of the metric
+     * @param value         Current value of the gauge
+     */
+    synchronized void addGauge(String name, String description, LongSupplier value)    {
+        Gauge gauge = new Gauge(name, description, value, false);
+        gauges.add(gauge);
+        register(gauge);
+    }
+
+    /**
+     * Adds a gauge with a JVM-wide value which is shared by all provider instances (such as the value pool
+     * statistics). In the JVM-wide registry, the value is reported only once.
+     *
+     * @param name          Name of the metric
+     * @param description   Description of the metric
+     * @param value         Current value of the gauge
+     */
+    synchronized void addJvmGauge(String name, String description, LongSupplier value)    {
+        Gauge gauge = new Gauge(name, description, value, true);
+        gauges.add(gauge);
+        register(gauge);
+    }
+
+    /**
+     * Removes the gauges of this provider instance from the JVM-wide registry. The plugin metrics are removed by Kafka
+     * together with the plugin.
+     */
+    synchronized void close()   {
+        if (pluginMetrics == null)  {
+            removeSharedGauges();
+        }
+
+        gauges.clear();
+    }
+
+    private void register(Gauge gauge)  {
+        PluginMetrics plugin = pluginMetrics;
+        Measurable measurable;
+
+        if (plugin != null) {
+            measurable = (config, now) -> gauge.value.getAsLong();
+            plugin.addMetric(plugin.metricName(gauge.name, gauge.description, kindTags()), measurable);
+        } else {
+            Metrics metrics = sharedMetrics();
+            MetricName metricName = metrics.metricName(gauge.name, GROUP, gauge.description, kindTags());
+
+            if (gauge.jvmWide)  {
+                measurable = (config, now) -> gauge.value.getAsLong();
+                metrics.addMetricIfAbsent(metricName, null, measurable);
+            } else {
+                SHARED_GAUGES.computeIfAbsent(kind + "/" + gauge.name, key -> {
+                    Set<LongSupplier> values = ConcurrentHashMap.newKeySet();
+                    metrics.addMetric(metricName, (Measurable) (config, now) -> values.stream().mapToLong(LongSupplier::getAsLong).sum());
+                    return values;
+                }).add(gauge.value);
+            }
+        }
+    }
+
+    private void removeSharedGauges()   {
+        for (Gauge gauge : gauges)  {
+            Set<LongSupplier> values = SHARED_GAUGES.get(kind + "/" + gauge.name);
+
+            if (values != null) {
+                values.remove(gauge.value);
+            }
+        }
+    }
+
+    /**
+     * Records a call to the Kubernetes API
+     *
+     * @param namespace         Namespace of the resource
+     * @param latencyNanos      Duration of the API call in nanoseconds
+     */
+    void recordApiCall(String namespace, long latencyNanos) {
+        sensors(namespace).apiLatency.record(toMillis(latencyNanos));
+    }
+
+    /**
+     * Records the time a Kubernetes API request waited for the rate limiter
+     *
+     * @param namespace         Namespace of the resource
+     * @param waitNanos         Time spent waiting in nanoseconds
+     */
+    void recordQueueWait(String namespace, long waitNanos) {
+        sensors(namespace).queueWait.record(toMillis(waitNanos));
+    }
+
+    /**
+     * Records a successfully resolved configuration
+     *
+     * @param namespace             Namespace of the resource
+     * @param processingNanos       Time spent decoding and selecting the values in nanoseconds
+     * @param payloadBytes          Estimated size of the resolved values in bytes
+     */
+    void recordRequest(String namespace, long processingNanos, long payloadBytes) {
+        ProviderSensors sensors = sensors(namespace);
+        sensors.requests.record();
+        sensors.processingTime.record(toMillis(processingNanos));
+        sensors.payloadSize.record(payloadBytes);
+    }
+
+    /**
+     * Records a failed request
+     *
+     * @param namespace     Namespace of the resource
+     */
+    void recordError(String namespace) {
+        ProviderSensors sensors = sensors(namespace);
+        sensors.requests.record();
+        sensors.errors.record();
+    }
+
+    /**
+     * Estimates the size of the configuration values in bytes
+     *
+     * @param values    The values
+     *
+     * @return  Estimated size in bytes
+     */
+    static long payloadBytes(Map<String, String> values)   {
+        long size = 0L;
+
+        for (Map.Entry<String, String> value : values.entrySet())  {
+            size += 2L * (value.getKey().length() + value.getValue().length());
+        }
+
+        return size;
+    }
+
+    private static double toMillis(long nanos)  {
+        return nanos / 1_000_000d;
+    }
+
+    private ProviderSensors sensors(String namespace)  {
+        PluginMetrics plugin = pluginMetrics;
+
+        if (plugin != null) {
+            return pluginSensors.computeIfAbsent(namespace, ns -> new ProviderSensors(kind + "." + ns,
+                    plugin::addSensor,
+                    (name, description) -> plugin.metricName(name, description, tags(ns))));
+        } else {
+            Metrics metrics = sharedMetrics();
+            return SHARED_SENSORS.computeIfAbsent(kind + "/" + namespace, key -> new ProviderSensors(GROUP + "." + kind + "." + namespace,
+                    metrics::sensor,
+                    (name, description) -> metrics.metricName(name, GROUP, description, tags(namespace))));
+        }
+    }
+
+    private LinkedHashMap<String, String> kindTags()   {
+        LinkedHashMap<String, String> tags = new LinkedHashMap<>(1);
+        tags.put("kind", kind);
+
+        return tags;
+    }
+
+    private LinkedHashMap<String, String> tags(String namespace)   {
+        LinkedHashMap<String, String> tags = new LinkedHashMap<>(2);
+        tags.put("kind", kind);
+        tags.put("namespace", namespace);
+
+        return tags;
+    }
+
+    private static synchronized Metrics sharedMetrics()    {
+        if (sharedMetrics == null)  {
+            sharedMetrics = new Metrics(new MetricConfig(), List.of(new JmxReporter()), Time.SYSTEM, new KafkaMetricsContext(JMX_PREFIX));
+        }
+
+        return sharedMetrics;
+    }
+
+    /**
+     * Gauge added by the provider
+     */
+    private static final class Gauge {
+        private final String name;
+        private final String description;
+        private final LongSupplier value;
+        private final boolean jvmWide;
+
+        Gauge(String name, String description, LongSupplier value, boolean jvmWide) {
+            this.name = name;
+            this.description = description;
+            this.value = value;
+            this.jvmWide = jvmWide;
+        }
+    }
+
+    /**
+     * Sensors for a single kind and namespace
+     */
+    private static final class ProviderSensors {
+        private final Sensor requests;
+        private final Sensor errors;
+        private final Sensor apiLatency;
+        private final Sensor processingTime;
+        private final Sensor payloadSize;
+        private final Sensor queueWait;
+
+        ProviderSensors(String prefix, Function<String, Sensor> sensor, BiFunction<String, String, MetricName> metricName) {
+            requests = sensor.apply(prefix + ".requests");
+            addRateAndTotal(requests, metricName, "request", "requests to resolve the configuration");
+
+            errors = sensor.apply(prefix + ".errors");
+            addRateAndTotal(errors, metricName, "error", "failed requests to resolve the configuration");
+
+            apiLatency = sensor.apply(prefix + ".api-latency");
+            addLatency(apiLatency, metricName, "api-latency", "round-trip time of the Kubernetes API requests in milliseconds", MAX_API_LATENCY_MS);
+
+            processingTime = sensor.apply(prefix + ".processing-time");
+            addLatency(processingTime, metricName, "processing-time", "time spent decoding and selecting the configuration values in milliseconds", MAX_PROCESSING_TIME_MS);
+
+            payloadSize = sensor.apply(prefix + ".payload-size");
+            addAvgAndMax(payloadSize, metricName, "payload-size", "estimated size of the resolved configuration values in bytes");
+
+            queueWait = sensor.apply(prefix + ".queue-wait");
+            addLatency(queueWait, metricName, "queue-wait", "time the Kubernetes API requests waited for the rate limiter in milliseconds", MAX_QUEUE_WAIT_MS);
+        }
+
+        private static void addRateAndTotal(Sensor sensor, BiFunction<String, String, MetricName> metricName, String name, String description)  {
+            sensor.add(metricName.apply(name + "-rate", "The number of " + description + " per second"), new Rate());
+            sensor.add(metricName.apply(name + "-total", "The total number of " + description), new CumulativeCount());
+        }
+
+        private static void addAvgAndMax(Sensor sensor, BiFunction<String, String, MetricName> metricName, String name, String description)  {
+            sensor.add(metricName.apply(name + "-avg", "The average " + description), new Avg());
+            sensor.add(metricName.apply(name + "-max", "The maximum " + description), new Max());
+        }
+
+        private static void addLatency(Sensor sensor, BiFunction<String, String, MetricName> metricName, String name, String description, double max)  {
+            addAvgAndMax(sensor, metricName, name, description);
+            sensor.add(new Percentiles(HISTOGRAM_SIZE_BYTES, max, Percentiles.BucketSizing.LINEAR,
+                    new Percentile(metricName.apply(name + "-p50", "The median " + description), 50),
+                    new Percentile(metricName.apply(name + "-p99", "The 99th percentile of the " + description), 99)));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket limiting the rate of the Kubernetes API requests. The limiters are shared by all provider instances in
+ * the JVM with the same configuration, so the limit applies to all of them together.
+ *
+ * The requests waiting for a token are queued per namespace and the tokens are handed out to the namespaces in a
+ * round-robin fashion. A burst of requests for one namespace therefore does not delay the requests for the other
+ * namespaces more than necessary.
+ */
+final class RateLimiter {
+    private static final Map<String, RateLimiter> SHARED = new ConcurrentHashMap<>();
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final LongSupplier nanoClock;
+    // Namespaces with waiting requests in the order in which they get the next tokens
+    private final LinkedHashMap<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Creates the rate limiter
+     *
+     * @param permitsPerSecond  Number of requests allowed per second
+     * @param burst             Maximum number of requests allowed at once after a period of inactivity
+     * @param nanoClock         Clock returning the current time in nanoseconds
+     */
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Returns the JVM-wide rate limiter for the configuration
+     *
+     * @param config    Configuration of the provider
+     *
+     * @return  The shared rate limiter or null if the rate limiting is disabled
+     */
+    static RateLimiter shared(KubernetesConfigProviderConfig config) {
+        if (config.rateLimitQps() <= 0) {
+            return null;
+        } else {
+            return SHARED.computeIfAbsent(config.rateLimitQps() + "/" + config.rateLimitBurst(),
+                    ignored -> new RateLimiter(config.rateLimitQps(), config.rateLimitBurst(), System::nanoTime));
+        }
+    }
+
+    /**
+     * Waits for a token to call the Kubernetes API
+     *
+     * @param namespace     Namespace of the requested resource used for the fair queuing
+     *
+     * @return  Time spent waiting for the token in nanoseconds
+     */
+    synchronized long acquire(String namespace) {
+        long start = nanoClock.getAsLong();
+        Waiter waiter = new Waiter();
+        queues.computeIfAbsent(namespace, ignored -> new ArrayDeque<>()).add(waiter);
+
+        try {
+            grant();
+
+            while (!waiter.granted) {
+                TimeUnit.NANOSECONDS.timedWait(this, Math.max(nanosUntilNextToken(), TimeUnit.MILLISECONDS.toNanos(1)));
+                grant();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            if (waiter.granted) {
+                // The token was granted by another thread while waiting and is handed out again because it is not used
+                tokens += 1d;
+                grant();
+            } else {
+                remove(namespace, waiter);
+            }
+
+            throw new ConfigException("Interrupted while waiting to call the Kubernetes API");
+        }
+
+        return nanoClock.getAsLong() - start;
+    }
+
+    /**
+     * Hands out the available tokens to the waiting requests with the namespaces taking turns
+     */
+    private void grant()   {
+        refill();
+
+        boolean grantedAny = false;
+
+        while (tokens >= 1d && !queues.isEmpty())  {
+            Iterator<Map.Entry<String, ArrayDeque<Waiter>>> namespaces = queues.entrySet().iterator();
+            Map.Entry<String, ArrayDeque<Waiter>> next = namespaces.next();
+            namespaces.remove();
+
+            next.getValue().poll().granted = true;
+            tokens -= 1d;
+            grantedAny = true;
+
+            if (!next.getValue().isEmpty()) {
+                // Moves the namespace to the end of the queue
+                queues.put(next.getKey(), next.getValue());
+            }
+        }
+
+        if (grantedAny) {
+            notifyAll();
+        }
+    }
+
+    private void refill()   {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+    }
+
+    private long nanosUntilNextToken()  {
+        return (long) ((1d - tokens) * TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    /**
+     * @return  Number of requests waiting for a token
+     */
+    synchronized int waiting()  {
+        return queues.values().stream().mapToInt(ArrayDeque::size).sum();
+    }
+
+    private void remove(String namespace, Waiter waiter)    {
+        ArrayDeque<Waiter> queue = queues.get(namespace);
+
+        if (queue != null && queue.remove(waiter) && queue.isEmpty())   {
+            queues.remove(namespace);
+        }
+    }
+
+    /**
+     * Request waiting for a token
+     */
+    private static final class Waiter {
+        private boolean granted = false;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Decides the TTL returned with the resolved configuration. Kafka (for example Kafka Connect) uses the TTL to resolve
+ * the configuration again once it expires. The TTL is randomly shortened by up to the configured fraction of the
+ * refresh interval, so the configurations resolved at the same time are not resolved again all at once. The TTL is
+ * never longer than the configured interval.
+ */
+final class RefreshPolicy {
+    private final Long defaultIntervalMs;
+    private final Map<KubernetesResourceIdentifier, Long> intervals;
+    private final double jitter;
+    private final DoubleSupplier random;
+
+    /**
+     * Creates the refresh policy
+     *
+     * @param defaultIntervalMs     Refresh interval of the paths without their own interval or null to not refresh them
+     * @param intervals             Refresh intervals of the individual resources
+     * @param jitter                Fraction of the refresh interval by which the TTL is randomly shortened
+     * @param random                Supplier of random numbers between 0 (inclusive) and 1 (exclusive)
+     */
+    RefreshPolicy(Long defaultIntervalMs, Map<KubernetesResourceIdentifier, Long> intervals, double jitter, DoubleSupplier random) {
+        this.defaultIntervalMs = defaultIntervalMs;
+        this.intervals = intervals;
+        this.jitter = jitter;
+        this.random = random;
+    }
+
+    /**
+     * Creates the refresh policy from the provider configuration
+     *
+     * @param config    Configuration of the provider
+     * @param parser    Parses the paths into resource identifiers
+     *
+     * @return  The refresh policy or null if no refresh intervals are configured
+     */
+    static RefreshPolicy fromConfig(KubernetesConfigProviderConfig config, Function<String, KubernetesResourceIdentifier> parser)   {
+        Long defaultIntervalMs = config.refreshIntervalMs();
+        List<String> mappings = config.refreshIntervals();
+
+        if (defaultIntervalMs == null && mappings.isEmpty())    {
+            return null;
+        } else if (defaultIntervalMs != null) {
+            validate(defaultIntervalMs, KubernetesConfigProviderConfig.REFRESH_INTERVAL_MS_CONFIG);
+        }
+
+        Map<KubernetesResourceIdentifier, Long> intervals = new HashMap<>(mappings.size());
+
+        for (String mapping : mappings) {
+            // Label selectors might contain = as well, so the last one separates the interval
+            int separator = mapping.lastIndexOf('=');
+
+            if (separator <= 0 || separator == mapping.length() - 1)  {
+                throw new ConfigException("Invalid refresh interval mapping " + mapping + ". It has to be in format <path>=<milliseconds>.");
+            }
+
+            long intervalMs;
+
+            try {
+                intervalMs = Long.parseLong(mapping.substring(separator + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new ConfigException("Invalid refresh interval mapping " + mapping + ". The interval has to be a number of milliseconds.");
+            }
+
+            validate(intervalMs, mapping);
+            intervals.put(parser.apply(mapping.substring(0, separator).trim()), intervalMs);
+        }
+
+        return new RefreshPolicy(defaultIntervalMs, intervals, config.refreshJitter(), () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    private static void validate(long intervalMs, String name) {
+        if (intervalMs <= 0)    {
+            throw new ConfigException("The refresh interval in " + name + " has to be positive");
+        }
+    }
+
+    /**
+     * Returns the TTL of the configuration resolved from given resource
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return  TTL in milliseconds or null if the configuration should not be refreshed
+     */
+    Long ttl(KubernetesResourceIdentifier resourceIdentifier)   {
+        Long intervalMs = intervals.getOrDefault(resourceIdentifier, defaultIntervalMs);
+
+        if (intervalMs == null) {
+            return null;
+        }
+
+        return Math.max(1L, intervalMs - (long) (intervalMs * jitter * random.getAsDouble()));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Java Flight Recorder events emitted while resolving the configuration. Every resolution is split into three
+ * events: retrieving the resource (from the informer cache or the Kubernetes API), decoding its values and selecting
+ * the requested keys. When the events are not enabled in the recording settings, only the resolution itself is
+ * executed.
+ */
+final class ResolutionEvents {
+    static final String CACHE_HIT = "hit";
+    static final String CACHE_MISS = "miss";
+    static final String CACHE_DISABLED = "disabled";
+
+    private ResolutionEvents() { }
+
+    /**
+     * Retrieves the resource and records the fetch event
+     *
+     * @param kind                  Kind of the Kubernetes resource
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     * @param source                How is the resource retrieved (resource or selector)
+     * @param fetch                 Retrieves the resource
+     *
+     * @return  The retrieved resource
+     *
+     * @param <R>   Resource
+     */
+    static <R> R fetch(String kind, KubernetesResourceIdentifier resourceIdentifier, String source, Supplier<R> fetch) {
+        FetchEvent event = new FetchEvent();
+
+        if (!event.isEnabled()) {
+            return fetch.get();
+        }
+
+        event.begin();
+        R resource = fetch.get();
+        event.end();
+
+        if (event.shouldCommit())   {
+            event.source = source;
+            event.commit(kind, resourceIdentifier, 0, 0L, null);
+        }
+
+        return resource;
+    }
+
+    /**
+     * Decodes the values of the resource and records the decode event. The Secret values are decoded lazily, so this
+     * event covers building the values and the Base64 decoding is part of the filter event.
+     *
+     * @param kind                  Kind of the Kubernetes resource
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     * @param values                Supplier of all values of the resource
+     *
+     * @return  All values of the resource
+     */
+    static Map<String, String> decode(String kind, KubernetesResourceIdentifier resourceIdentifier, Supplier<Map<String, String>> values) {
+        DecodeEvent event = new DecodeEvent();
+
+        if (!event.isEnabled()) {
+            return values.get();
+        }
+
+        event.begin();
+        Map<String, String> decoded = values.get();
+        event.end();
+
+        if (event.shouldCommit())   {
+            event.commit(kind, resourceIdentifier, decoded.size(), 0L, null);
+        }
+
+        return decoded;
+    }
+
+    /**
+     * Selects the requested keys and records the filter event
+     *
+     * @param kind                  Kind of the Kubernetes resource
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     * @param values                Supplier of all values of the resource
+     * @param keys                  Requested keys or key patterns or null to select all values
+     * @param separator             Separator used to join multiple values matching a single pattern
+     * @param cacheOutcome          Outcome of the result cache lookup (miss or disabled)
+     *
+     * @return  Map with the selected values
+     */
+    static Map<String, String> filter(String kind, KubernetesResourceIdentifier resourceIdentifier, Supplier<Map<String, String>> values, Set<String> keys, String separator, String cacheOutcome) {
+        FilterEvent event = new FilterEvent();
+
+        if (!event.isEnabled()) {
+            return GlobPattern.selectValues(values.get(), keys, separator);
+        }
+
+        Map<String, String> all = decode(kind, resourceIdentifier, values);
+
+        event.begin();
+        Map<String, String> selected = GlobPattern.selectValues(all, keys, separator);
+        event.end();
+
+        if (event.shouldCommit())   {
+            event.commit(kind, resourceIdentifier, selected.size(), ProviderMetrics.payloadBytes(selected), cacheOutcome);
+        }
+
+        return selected;
+    }
+
+    /**
+     * Records the filter event for values served from the result cache
+     *
+     * @param kind                  Kind of the Kubernetes resource
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     * @param cached                The cached values
+     */
+    static void cacheHit(String kind, KubernetesResourceIdentifier resourceIdentifier, Map<String, String> cached) {
+        FilterEvent event = new FilterEvent();
+
+        if (event.shouldCommit())   {
+            event.commit(kind, resourceIdentifier, cached.size(), ProviderMetrics.payloadBytes(cached), CACHE_HIT);
+        }
+    }
+
+    /**
+     * Fields shared by all configuration resolution events. Fields which do not apply to the event are left empty.
+     */
+    @Category({"Kafka", "Kubernetes Config Provider"})
+    abstract static class ResolutionEvent extends Event {
+        @Label("Kind")
+        String kind;
+
+        @Label("Namespace")
+        String namespace;
+
+        @Label("Name")
+        @Description("Name of the resource or the label selector")
+        String name;
+
+        @Label("Key Count")
+        int keyCount;
+
+        @Label("Payload Bytes")
+        @DataAmount
+        long payloadBytes;
+
+        @Label("Cache Outcome")
+        @Description("Outcome of the result cache lookup: hit, miss or disabled")
+        String cacheOutcome;
+
+        void commit(String kind, KubernetesResourceIdentifier resourceIdentifier, int keyCount, long payloadBytes, String cacheOutcome)   {
+            this.kind = kind;
+            this.namespace = resourceIdentifier.getNamespace();
+            this.name = resourceIdentifier.isLabelSelector() ? String.valueOf(resourceIdentifier.getLabels()) : resourceIdentifier.getName();
+            this.keyCount = keyCount;
+            this.payloadBytes = payloadBytes;
+            this.cacheOutcome = cacheOutcome;
+            commit();
+        }
+    }
+
+    @Name("io.strimzi.kafka.ResourceFetch")
+    @Label("Kubernetes Resource Fetch")
+    @Description("Retrieval of the Kubernetes resource used by the configuration provider")
+    static final class FetchEvent extends ResolutionEvent {
+        @Label("Source")
+        @Description("How the resource was retrieved: resource or selector")
+        String source;
+    }
+
+    @Name("io.strimzi.kafka.ValueDecode")
+    @Label("Configuration Value Decode")
+    @Description("Decoding of the values of the Kubernetes resource")
+    static final class DecodeEvent extends ResolutionEvent {
+    }
+
+    @Name("io.strimzi.kafka.KeyFilter")
+    @Label("Configuration Key Filter")
+    @Description("Selection of the requested keys from the values of the Kubernetes resource")
+    static final class FilterEvent extends ResolutionEvent {
+    }
+}
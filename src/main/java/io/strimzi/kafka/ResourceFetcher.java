@@ -0,0 +1,321 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import org.apache.kafka.common.config.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Retrieves the Kubernetes resources used by the configuration provider. The resources are served from the informer
+ * cache when enabled and synced. Otherwise, they are retrieved from the Kubernetes API with the concurrent requests for
+ * the same resource coalesced into a single API call. When enabled, the last known good version of the resource is
+ * served while it is refreshed in the background, the API calls are guarded by a circuit breaker and a rate limiter,
+ * and the resource version is checked using a metadata-only request before retrieving the whole resource again. The
+ * metadata check is used for at most cache.max.entries most recently retrieved resources. The API calls use the client
+ * of the endpoint selected by the Kubernetes API calls guard.
+ *
+ * @param <T>   Resource
+ */
+final class ResourceFetcher<T extends HasMetadata> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceFetcher.class);
+
+    private final String kind;
+    private final Function<KubernetesClient, MixedOperation<T, ? extends KubernetesResourceList<T>, ? extends Resource<T>>> operator;
+    private final SingleFlight<KubernetesResourceIdentifier, T> inFlightRequests = new SingleFlight<>();
+    private final SingleFlight<KubernetesResourceIdentifier, List<T>> inFlightLists = new SingleFlight<>();
+    private final ResourceInformers<T> informers;
+    private final boolean informersPerResource;
+    private final StaleResourceCache<T> staleResources;
+    private final KubernetesApiCalls apiCalls;
+    private final BiFunction<KubernetesClient, KubernetesResourceIdentifier, T> directGet;
+    private final boolean metadataCheck;
+    private final Map<KubernetesResourceIdentifier, T> lastRetrieved;
+    private final KubernetesClient client;
+    private final MountedResources mounts;
+    private final ResourceSnapshots<T> snapshots;
+    private PrefetchedResources<T> prefetched;
+
+    /**
+     * Creates the resource fetcher
+     *
+     * @param kind      Kind of the Kubernetes resource
+     * @param operator  Function returning the Kubernetes client operation for the resource kind and the client
+     * @param client    Kubernetes client
+     * @param config    Configuration of the provider
+     * @param metrics   Metrics of the provider
+     */
+    ResourceFetcher(String kind, Function<KubernetesClient, MixedOperation<T, ? extends KubernetesResourceList<T>, ? extends Resource<T>>> operator, KubernetesClient client, KubernetesConfigProviderConfig config, ProviderMetrics metrics) {
+        this.kind = kind;
+        this.operator = operator;
+        this.client = client;
+        this.informersPerResource = config.informersPerResource();
+
+        if (config.informersEnabled())  {
+            this.informers = new ResourceInformers<>(kind, config.informersPerResource(), resourceIdentifier -> {
+                if (config.informersPerResource())  {
+                    return operator.apply(client).inNamespace(resourceIdentifier.getNamespace()).withName(resourceIdentifier.getName());
+                } else {
+                    return operator.apply(client).inNamespace(resourceIdentifier.getNamespace());
+                }
+            });
+        } else {
+            this.informers = null;
+        }
+
+        this.staleResources = config.staleWhileRevalidateEnabled() ? new StaleResourceCache<>(kind, config.staleMaxMs(), System::currentTimeMillis) : null;
+        this.apiCalls = new KubernetesApiCalls(kind, client, config, metrics);
+        this.directGet = config.protobufEnabled()
+                ? ProtobufResourceFetcher.getter(kind)
+                : (apiClient, resourceIdentifier) -> operator.apply(apiClient).inNamespace(resourceIdentifier.getNamespace()).withName(resourceIdentifier.getName()).get();
+        this.metadataCheck = config.metadataCheckEnabled();
+        this.lastRetrieved = metadataCheck ? lastRetrievedResources(config.cacheMaxEntries()) : null;
+        this.snapshots = ResourceSnapshots.fromConfig(kind, config, client.getKubernetesSerialization());
+        this.mounts = MountedResources.fromMappings(kind, config.mounts(), path -> KubernetesResourceIdentifier.fromConfigString(client, path));
+    }
+
+    /**
+     * Creates the map of the last retrieved resources used by the metadata check. It keeps at most the given number of
+     * the most recently used resources.
+     *
+     * @param maxEntries    Maximum number of resources
+     *
+     * @return  The map of the last retrieved resources
+     */
+    private static <T> Map<KubernetesResourceIdentifier, T> lastRetrievedResources(int maxEntries)  {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<KubernetesResourceIdentifier, T> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Gets the values of the resource mounted as a volume into the pod
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return  The values read from the mount directory or null if the resource is not mounted
+     */
+    Map<String, String> mountedValues(KubernetesResourceIdentifier resourceIdentifier)    {
+        return mounts != null ? mounts.values(resourceIdentifier) : null;
+    }
+
+    /**
+     * Retrieves the resources configured using the prefetch.paths option concurrently and keeps them to serve the
+     * following requests. It blocks until all resources are retrieved.
+     *
+     * @param config    Configuration of the provider
+     */
+    void prefetch(KubernetesConfigProviderConfig config)   {
+        List<KubernetesResourceIdentifier> resourceIdentifiers = config.prefetchPaths().stream()
+                .map(path -> KubernetesResourceIdentifier.fromConfigString(client, path))
+                .collect(Collectors.toList());
+
+        prefetched = PrefetchedResources.prefetch(kind, resourceIdentifiers, config.prefetchParallelism(), config.prefetchTtlMs(), System::currentTimeMillis, this::fetchCoalesced, this::listFromApi);
+    }
+
+    /**
+     * Gets the resource
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return      Resource retrieved from the Kubernetes cluster
+     */
+    T get(KubernetesResourceIdentifier resourceIdentifier)   {
+        if (informers != null)  {
+            SharedIndexInformer<T> informer = informers.informer(resourceIdentifier);
+
+            if (informer.hasSynced())   {
+                LOG.debug("Retrieving configuration from {} {} in namespace {} from the informer cache", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace());
+                return checkExists(ResourceInformers.fromStore(informer, resourceIdentifier), resourceIdentifier);
+            } else {
+                LOG.debug("{} informer for namespace {} is not synced yet", kind, resourceIdentifier.getNamespace());
+            }
+        }
+
+        if (prefetched != null) {
+            T resource = prefetched.get(resourceIdentifier);
+
+            if (resource != null)   {
+                LOG.debug("Using the prefetched {} {} in namespace {}", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace());
+                return resource;
+            }
+        }
+
+        if (snapshots != null) {
+            T snapshot = snapshots.getAndRefresh(resourceIdentifier, this::fetchCoalesced);
+
+            if (snapshot != null)  {
+                LOG.debug("Using the snapshot of {} {} in namespace {} while retrieving it", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace());
+                return snapshot;
+            }
+        }
+
+        if (staleResources != null) {
+            T stale = staleResources.getAndRefresh(resourceIdentifier, this::fetchCoalesced);
+
+            if (stale != null)  {
+                LOG.debug("Using the last known good {} {} in namespace {} while refreshing it", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace());
+                return stale;
+            }
+        }
+
+        return fetchCoalesced(resourceIdentifier);
+    }
+
+    private T fetchCoalesced(KubernetesResourceIdentifier resourceIdentifier)   {
+        return inFlightRequests.execute(resourceIdentifier, () -> fetch(resourceIdentifier));
+    }
+
+    /**
+     * Gets the resource directly from the Kubernetes API. Concurrent calls for the same resource should be coalesced
+     * and not call this method in parallel.
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return      Resource retrieved from the Kubernetes cluster
+     */
+    private T fetch(KubernetesResourceIdentifier resourceIdentifier)   {
+        T resource = apiCalls.call(resourceIdentifier, apiClient -> retrieve(apiClient, resourceIdentifier));
+
+        if (staleResources != null) {
+            staleResources.update(resourceIdentifier, resource);
+        }
+
+        if (snapshots != null) {
+            snapshots.update(resourceIdentifier, resource);
+        }
+
+        return checkExists(resource, resourceIdentifier);
+    }
+
+    /**
+     * Lists the resources matching the label selector. The resources are served from the informer cache when the
+     * informers are enabled per namespace and synced. Otherwise, they are listed using the Kubernetes API with the
+     * concurrent requests for the same selector coalesced into a single API call.
+     *
+     * @param resourceIdentifier    Identifier of the Kubernetes resources with the label selector
+     *
+     * @return      Resources matching the selector
+     */
+    List<T> list(KubernetesResourceIdentifier resourceIdentifier)   {
+        if (informers != null && !informersPerResource)  {
+            SharedIndexInformer<T> informer = informers.informer(resourceIdentifier);
+
+            if (informer.hasSynced())   {
+                LOG.debug("Retrieving configuration from {} in namespace {} from the informer cache", apiCalls.description(resourceIdentifier), resourceIdentifier.getNamespace());
+                return ResourceInformers.listFromStore(informer, resourceIdentifier);
+            }
+        }
+
+        if (prefetched != null) {
+            List<T> resources = prefetched.list(resourceIdentifier);
+
+            if (resources != null)   {
+                return resources;
+            }
+        }
+
+        return listFromApi(resourceIdentifier);
+    }
+
+    private List<T> listFromApi(KubernetesResourceIdentifier resourceIdentifier)   {
+        return inFlightLists.execute(resourceIdentifier, () -> apiCalls.call(resourceIdentifier,
+                apiClient -> operator.apply(apiClient).inNamespace(resourceIdentifier.getNamespace()).withLabels(resourceIdentifier.getLabels()).list().getItems()));
+    }
+
+    /**
+     * Retrieves the resource from the Kubernetes API. When the metadata check is enabled and the resource was
+     * retrieved before, only its metadata are retrieved first and the whole resource is retrieved only when the
+     * resource version changed.
+     *
+     * @param apiClient             Kubernetes client of the selected API server endpoint
+     * @param resourceIdentifier    Identifier of the Kubernetes resource
+     *
+     * @return  The resource or null if it does not exist
+     */
+    private T retrieve(KubernetesClient apiClient, KubernetesResourceIdentifier resourceIdentifier)   {
+        if (!metadataCheck)    {
+            return directGet.apply(apiClient, resourceIdentifier);
+        }
+
+        T previous = lastRetrieved.get(resourceIdentifier);
+
+        if (previous != null && previous.getMetadata().getResourceVersion() != null) {
+            String resourceVersion = new ResourceMetadataFetcher(apiClient, kind).resourceVersion(resourceIdentifier);
+
+            if (previous.getMetadata().getResourceVersion().equals(resourceVersion))  {
+                LOG.debug("{} {} in namespace {} did not change since it was retrieved last time", kind, resourceIdentifier.getName(), resourceIdentifier.getNamespace());
+                return previous;
+            }
+        }
+
+        T resource = directGet.apply(apiClient, resourceIdentifier);
+
+        if (resource != null)   {
+            lastRetrieved.put(resourceIdentifier, resource);
+        } else {
+            lastRetrieved.remove(resourceIdentifier);
+        }
+
+        return resource;
+    }
+
+    /**
+     * Checks that the resource was found
+     *
+     * @param resource              The resource or null if it was not found
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The resource if it exists. Throws Kafka ConfigException otherwise.
+     */
+    private T checkExists(T resource, KubernetesResourceIdentifier resourceIdentifier)   {
+        if (resource == null)   {
+            throw new ConfigException(kind +  " " + resourceIdentifier.getName() + " in namespace " + resourceIdentifier.getNamespace() + " not found");
+        }
+
+        return resource;
+    }
+
+    /**
+     * Stops the informers and the background refreshes if they are used and closes the API server endpoint clients
+     */
+    @Override
+    public void close() {
+        if (informers != null)  {
+            informers.close();
+        }
+
+        if (staleResources != null) {
+            staleResources.close();
+        }
+
+        if (mounts != null) {
+            mounts.close();
+        }
+
+        if (snapshots != null) {
+            snapshots.close();
+        }
+
+        apiCalls.close();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.dsl.Informable;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the Kubernetes informers used to cache the resources referenced by the configuration provider. The informers
+ * are created lazily when a resource from given namespace (or given resource when running per resource) is requested
+ * for the first time and run until the provider is closed.
+ *
+ * @param <T>   Resource
+ */
+final class ResourceInformers<T extends HasMetadata> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceInformers.class);
+
+    private final String kind;
+    private final boolean perResource;
+    private final Function<KubernetesResourceIdentifier, Informable<T>> informable;
+    private final Map<String, SharedIndexInformer<T>> informers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the informers
+     *
+     * @param kind          Kind of the Kubernetes resource
+     * @param perResource   Indicates whether one informer per resource (true) or per namespace (false) should be used
+     * @param informable    Function returning the Kubernetes client operation used to create the informer
+     */
+    ResourceInformers(String kind, boolean perResource, Function<KubernetesResourceIdentifier, Informable<T>> informable) {
+        this.kind = kind;
+        this.perResource = perResource;
+        this.informable = informable;
+    }
+
+    /**
+     * Returns the informer for given resource. If it does not exist yet, it will be created and started. The
+     * informer is not waited for to be synced, so the caller should check if it is synced before using its store.
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  Informer caching the resource
+     */
+    SharedIndexInformer<T> informer(KubernetesResourceIdentifier resourceIdentifier)  {
+        String informerKey = perResource ? Cache.namespaceKeyFunc(resourceIdentifier.getNamespace(), resourceIdentifier.getName()) : resourceIdentifier.getNamespace();
+
+        return informers.computeIfAbsent(informerKey, key -> {
+            LOG.info("Starting {} informer for {}", kind, key);
+
+            SharedIndexInformer<T> informer = informable.apply(resourceIdentifier).runnableInformer(0);
+            informer.exceptionHandler((isStarted, t) -> {
+                LOG.warn("{} informer for {} failed and will be retried", kind, key, t);
+                return true;
+            });
+            informer.start();
+
+            return informer;
+        });
+    }
+
+    /**
+     * Gets the resource from the informer store
+     *
+     * @param informer              Informer which should be used
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The resource or null if it does not exist
+     */
+    static <T extends HasMetadata> T fromStore(SharedIndexInformer<T> informer, KubernetesResourceIdentifier resourceIdentifier)   {
+        return informer.getStore().getByKey(Cache.namespaceKeyFunc(resourceIdentifier.getNamespace(), resourceIdentifier.getName()));
+    }
+
+    /**
+     * Lists the resources matching the label selector from the informer store
+     *
+     * @param informer              Informer which should be used
+     * @param resourceIdentifier    Identifier of the resources with the label selector
+     *
+     * @return  The resources matching the label selector
+     */
+    static <T extends HasMetadata> List<T> listFromStore(SharedIndexInformer<T> informer, KubernetesResourceIdentifier resourceIdentifier)   {
+        return informer.getStore().list().stream()
+                .filter(resource -> resourceIdentifier.getNamespace().equals(resource.getMetadata().getNamespace()))
+                .filter(resource -> resource.getMetadata().getLabels() != null && resource.getMetadata().getLabels().entrySet().containsAll(resourceIdentifier.getLabels().entrySet()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stops all informers
+     */
+    @Override
+    public void close() {
+        informers.values().forEach(SharedIndexInformer::stop);
+        informers.clear();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.GenericKubernetesResource;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.HttpResponse;
+
+import java.net.HttpURLConnection;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gets only the metadata of the Kubernetes resources. It asks the Kubernetes API to return the resources as
+ * PartialObjectMetadata, so the data of the resource are not transferred. It is used to check the resource version
+ * of the resource before retrieving the whole resource again.
+ */
+final class ResourceMetadataFetcher {
+    private static final String ACCEPT_METADATA = "application/json;as=PartialObjectMetadata;g=meta.k8s.io;v=v1,application/json";
+
+    private final KubernetesClient client;
+    private final String kind;
+
+    /**
+     * Creates the metadata fetcher
+     *
+     * @param client    Kubernetes client
+     * @param kind      Kind of the Kubernetes resource from the core API group
+     */
+    ResourceMetadataFetcher(KubernetesClient client, String kind) {
+        this.client = client;
+        this.kind = kind;
+    }
+
+    /**
+     * Gets the current resource version of the resource
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The resource version or null if the resource does not exist
+     */
+    String resourceVersion(KubernetesResourceIdentifier resourceIdentifier)  {
+        HttpRequest request = client.getHttpClient().newHttpRequestBuilder()
+                .uri(coreApiUrl(client, kind, resourceIdentifier))
+                .header("Accept", ACCEPT_METADATA)
+                .timeout(client.getConfiguration().getRequestTimeout(), TimeUnit.MILLISECONDS)
+                .build();
+
+        HttpResponse<String> response;
+        try {
+            response = client.getHttpClient().sendAsync(request, String.class).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KubernetesClientException("Interrupted while getting the metadata of " + resourceIdentifier, e);
+        } catch (ExecutionException e) {
+            throw new KubernetesClientException("Failed to get the metadata of " + resourceIdentifier, e.getCause());
+        }
+
+        if (response.code() == HttpURLConnection.HTTP_NOT_FOUND)   {
+            return null;
+        } else if (!response.isSuccessful())    {
+            // The status code is kept, so client errors such as missing permissions are not retried on other endpoints
+            throw new KubernetesClientException("Failed to get the metadata of " + resourceIdentifier + ": " + response.code() + " " + response.message(), response.code(), null);
+        }
+
+        return client.getKubernetesSerialization().unmarshal(response.body(), GenericKubernetesResource.class).getMetadata().getResourceVersion();
+    }
+
+    /**
+     * Builds the URL of the resource from the core API group
+     *
+     * @param client                Kubernetes client
+     * @param kind                  Kind of the resource
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  URL of the resource
+     */
+    static String coreApiUrl(KubernetesClient client, String kind, KubernetesResourceIdentifier resourceIdentifier)    {
+        String masterUrl = client.getMasterUrl().toString();
+
+        return masterUrl + (masterUrl.endsWith("/") ? "" : "/") + "api/v1/namespaces/" + resourceIdentifier.getNamespace() + "/" + kind.toLowerCase(Locale.ROOT) + "s/" + resourceIdentifier.getName();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import org.apache.kafka.common.config.ConfigException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Encrypted on-disk snapshots of the last successfully retrieved version of the resources. When the provider starts
+ * (for example after a full cluster restart while the Kubernetes API server is not available yet), the resources are
+ * served from the snapshots immediately and retrieved from the Kubernetes API in the background. Once a resource is
+ * retrieved from the Kubernetes API, its snapshot is not used anymore by this provider instance and only updated.
+ *
+ * The snapshots are encrypted using AES-GCM with the configured key. The identifier of the resource is used as the
+ * associated data, so a snapshot cannot be swapped for a snapshot of another resource.
+ *
+ * @param <T>   Resource
+ */
+final class ResourceSnapshots<T extends HasMetadata> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceSnapshots.class);
+
+    private final String kind;
+    private final Path directory;
+    private final SnapshotCipher cipher;
+    private final long maxAgeMs;
+    private final LongSupplier clock;
+    private final KubernetesSerialization serialization;
+    private final Set<KubernetesResourceIdentifier> reconciled = ConcurrentHashMap.newKeySet();
+    private final Set<KubernetesResourceIdentifier> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<KubernetesResourceIdentifier, String> storedVersions = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+
+    /**
+     * Creates the snapshots
+     *
+     * @param kind              Kind of the Kubernetes resource
+     * @param directory         Directory where the snapshots are stored
+     * @param key               AES key used to encrypt the snapshots
+     * @param maxAgeMs          Maximum age in milliseconds of the snapshots which can be used
+     * @param clock             Clock returning the current time in milliseconds
+     * @param serialization     Serialization used to convert the resources to JSON and back
+     */
+    ResourceSnapshots(String kind, Path directory, byte[] key, long maxAgeMs, LongSupplier clock, KubernetesSerialization serialization) {
+        this.kind = kind;
+        this.directory = directory;
+        this.cipher = new SnapshotCipher(key);
+        this.maxAgeMs = maxAgeMs;
+        this.clock = clock;
+        this.serialization = serialization;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kubernetes-" + kind.toLowerCase(Locale.ROOT) + "-config-provider-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the snapshots from the provider configuration
+     *
+     * @param kind              Kind of the Kubernetes resource
+     * @param config            Configuration of the provider
+     * @param serialization     Serialization used to convert the resources to JSON and back
+     *
+     * @return  The snapshots or null if they are disabled
+     *
+     * @param <T>   Resource
+     */
+    static <T extends HasMetadata> ResourceSnapshots<T> fromConfig(String kind, KubernetesConfigProviderConfig config, KubernetesSerialization serialization)   {
+        if (config.snapshotDirectory() == null) {
+            return null;
+        } else if (config.snapshotKey() == null)    {
+            throw new ConfigException("The snapshot encryption key has to be configured when the snapshots are enabled");
+        }
+
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(config.snapshotKey().value());
+        } catch (IllegalArgumentException e) {
+            throw new ConfigException("The snapshot encryption key has to be Base64 encoded");
+        }
+
+        return new ResourceSnapshots<>(kind, Paths.get(config.snapshotDirectory()), key, config.snapshotMaxAgeMs(), System::currentTimeMillis, serialization);
+    }
+
+    /**
+     * Returns the resource from the snapshot when it was not retrieved from the Kubernetes API yet and schedules its
+     * retrieval in the background
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     * @param refresh               Retrieves the resource. It is expected to update the snapshot when it succeeds.
+     *
+     * @return  The resource from the snapshot or null if the resource was already retrieved or there is no snapshot
+     */
+    T getAndRefresh(KubernetesResourceIdentifier resourceIdentifier, Consumer<KubernetesResourceIdentifier> refresh)   {
+        if (reconciled.contains(resourceIdentifier))    {
+            return null;
+        }
+
+        T resource = load(resourceIdentifier);
+
+        if (resource == null)   {
+            return null;
+        }
+
+        if (refreshing.add(resourceIdentifier)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        refresh.accept(resourceIdentifier);
+                    } catch (RuntimeException e) {
+                        LOG.warn("Failed to retrieve {} {}. The snapshot will be used until it is retrieved.", kind, resourceIdentifier, e);
+                    } finally {
+                        refreshing.remove(resourceIdentifier);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The snapshots are closed
+                refreshing.remove(resourceIdentifier);
+            }
+        }
+
+        return resource;
+    }
+
+    /**
+     * Updates the snapshot of the resource retrieved from the Kubernetes API. The snapshot is written only when the
+     * resource version changed.
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     * @param resource              The resource or null if it does not exist anymore
+     */
+    void update(KubernetesResourceIdentifier resourceIdentifier, T resource)   {
+        reconciled.add(resourceIdentifier);
+
+        try {
+            if (resource == null)   {
+                storedVersions.remove(resourceIdentifier);
+                Files.deleteIfExists(file(resourceIdentifier));
+            } else if (resource.getMetadata().getResourceVersion() == null
+                    || !resource.getMetadata().getResourceVersion().equals(storedVersions.get(resourceIdentifier)))    {
+                store(resourceIdentifier, resource);
+                storedVersions.put(resourceIdentifier, resource.getMetadata().getResourceVersion());
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            LOG.warn("Failed to update the snapshot of {} {}", kind, resourceIdentifier, e);
+        }
+    }
+
+    private void store(KubernetesResourceIdentifier resourceIdentifier, T resource) throws IOException, GeneralSecurityException {
+        byte[] json = serialization.asJson(resource).getBytes(StandardCharsets.UTF_8);
+        byte[] plaintext = ByteBuffer.allocate(Long.BYTES + json.length).putLong(clock.getAsLong()).put(json).array();
+
+        byte[] encrypted = cipher.encrypt(associatedData(resourceIdentifier), plaintext);
+
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, ".tmp-", "");
+        Files.write(tmp, encrypted);
+        Files.move(tmp, file(resourceIdentifier), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the resource from the snapshot
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     *
+     * @return  The resource or null if there is no valid snapshot which is not older than the maximum age
+     */
+    T load(KubernetesResourceIdentifier resourceIdentifier)   {
+        Path file = file(resourceIdentifier);
+
+        try {
+            if (!Files.exists(file))    {
+                return null;
+            }
+
+            ByteBuffer plaintext = ByteBuffer.wrap(cipher.decrypt(associatedData(resourceIdentifier), Files.readAllBytes(file)));
+
+            long created = plaintext.getLong();
+
+            if (clock.getAsLong() - created > maxAgeMs)  {
+                LOG.debug("Snapshot of {} {} is too old", kind, resourceIdentifier);
+                return null;
+            }
+
+            LOG.info("Using the snapshot of {} {} from {}", kind, resourceIdentifier, created);
+            return serialization.unmarshal(new String(plaintext.array(), Long.BYTES, plaintext.remaining(), StandardCharsets.UTF_8));
+        } catch (IOException | GeneralSecurityException | RuntimeException e) {
+            LOG.warn("Failed to load the snapshot of {} {} from {}", kind, resourceIdentifier, file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Stops the background retrievals
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private byte[] associatedData(KubernetesResourceIdentifier resourceIdentifier)  {
+        return (kind + "/" + resourceIdentifier).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The snapshot files are named by the hash of the kind and the identifier of the resource to not reveal the
+     * names of the resources
+     */
+    private Path file(KubernetesResourceIdentifier resourceIdentifier)  {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(associatedData(resourceIdentifier));
+            return directory.resolve(Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + ".snapshot");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
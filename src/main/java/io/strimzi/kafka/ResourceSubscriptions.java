@@ -0,0 +1,200 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.dsl.Informable;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import org.apache.kafka.common.config.ConfigChangeCallback;
+import org.apache.kafka.common.config.ConfigData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Manages the subscriptions to configuration changes. Every subscribed path is watched using a single informer
+ * watching only the subscribed resource. The callbacks are called only when the values of the subscribed keys change
+ * compared to the last values seen by the watch or known when first subscribing for the same path and keys. The
+ * changes are detected using the per-key digests of the values, so changes of other keys in the same resource do not
+ * trigger the callbacks. Only the watch advances the digests, so neither getting the configuration nor subscribing
+ * again with the same keys hides a change from the subscriptions.
+ *
+ * @param <T>   Resource
+ */
+final class ResourceSubscriptions<T extends HasMetadata> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceSubscriptions.class);
+
+    private final String kind;
+    private final Function<String, Informable<T>> informable;
+    private final BiFunction<T, Set<String>, Map<String, String>> values;
+    private final Map<String, WatchedPath> watchedPaths = new ConcurrentHashMap<>();
+    private final ValueDigests digests = new ValueDigests();
+
+    /**
+     * Creates the subscription manager
+     *
+     * @param kind          Kind of the Kubernetes resource
+     * @param informable    Function returning the Kubernetes client operation for watching the resource with given path
+     * @param values        Function extracting the values of the requested keys from the resource
+     */
+    ResourceSubscriptions(String kind, Function<String, Informable<T>> informable, BiFunction<T, Set<String>, Map<String, String>> values) {
+        this.kind = kind;
+        this.informable = informable;
+        this.values = values;
+    }
+
+    /**
+     * Subscribes to the changes of given keys
+     *
+     * @param path          Path to the Kubernetes resource
+     * @param keys          Keys which should be watched for changes
+     * @param callback      Callback which should be called when the values change
+     * @param current       Current values of the keys or null if they are not known. They are used only when no other
+     *                      subscription for the same path and keys exists.
+     */
+    synchronized void subscribe(String path, Set<String> keys, ConfigChangeCallback callback, Map<String, String> current)  {
+        WatchedPath watchedPath = watchedPaths.get(path);
+        boolean newPath = watchedPath == null;
+
+        if (newPath)    {
+            watchedPath = new WatchedPath(path);
+            watchedPaths.put(path, watchedPath);
+        }
+
+        // The digests of the keys which are already subscribed are advanced only by the watch. Seeding them again
+        // with newer values would hide a change which the watch did not see yet from the existing subscriptions.
+        boolean seeded = watchedPath.subscriptions.stream().anyMatch(subscription -> Objects.equals(subscription.keys, keys));
+        watchedPath.subscriptions.add(new Subscription(keys, callback));
+
+        if (current != null && !seeded)    {
+            digests.update(path, keys, current);
+        }
+
+        if (newPath)    {
+            LOG.info("Starting to watch {} with path {} for changes", kind, path);
+            watchedPath.informer.start();
+        }
+    }
+
+    /**
+     * Unsubscribes from the changes of given keys. When there are no more subscriptions for given path, the watch is
+     * stopped.
+     *
+     * @param path          Path to the Kubernetes resource
+     * @param keys          Keys which were watched
+     * @param callback      Callback which was used for the subscription
+     */
+    synchronized void unsubscribe(String path, Set<String> keys, ConfigChangeCallback callback)  {
+        WatchedPath watchedPath = watchedPaths.get(path);
+
+        if (watchedPath != null)    {
+            watchedPath.subscriptions.removeIf(subscription -> subscription.callback == callback && Objects.equals(subscription.keys, keys));
+
+            if (watchedPath.subscriptions.stream().noneMatch(subscription -> Objects.equals(subscription.keys, keys)))   {
+                digests.remove(path, keys);
+            }
+
+            if (watchedPath.subscriptions.isEmpty())    {
+                LOG.info("Stopping to watch {} with path {} for changes", kind, path);
+                watchedPaths.remove(path).informer.stop();
+            }
+        }
+    }
+
+    /**
+     * Removes all subscriptions and stops all watches
+     */
+    @Override
+    public synchronized void close() {
+        watchedPaths.values().forEach(watchedPath -> watchedPath.informer.stop());
+        watchedPaths.clear();
+        digests.clear();
+    }
+
+    /**
+     * Single subscription
+     */
+    private static final class Subscription {
+        private final Set<String> keys;
+        private final ConfigChangeCallback callback;
+
+        Subscription(Set<String> keys, ConfigChangeCallback callback) {
+            this.keys = keys;
+            this.callback = callback;
+        }
+    }
+
+    /**
+     * Watched path with its informer and the subscriptions
+     */
+    private final class WatchedPath implements ResourceEventHandler<T> {
+        private final String path;
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final SharedIndexInformer<T> informer;
+
+        WatchedPath(String path) {
+            this.path = path;
+            this.informer = informable.apply(path).runnableInformer(0);
+            this.informer.addEventHandler(this);
+            this.informer.exceptionHandler((isStarted, t) -> {
+                LOG.warn("Watch of {} with path {} failed and will be retried", kind, path, t);
+                return true;
+            });
+        }
+
+        /**
+         * Notifies the subscriptions whose values changed. The values and their digests are computed only once for
+         * every distinct key set.
+         *
+         * @param resource  The updated resource
+         */
+        private synchronized void update(T resource) {
+            Map<Set<String>, ConfigData> changedValues = new HashMap<>();
+
+            for (Subscription subscription : subscriptions) {
+                ConfigData changed = changedValues.computeIfAbsent(subscription.keys, keys -> {
+                    Map<String, String> newValues = values.apply(resource, keys);
+                    Set<String> changedKeys = digests.update(path, keys, newValues);
+
+                    if (changedKeys.isEmpty())  {
+                        return null;
+                    }
+
+                    LOG.info("Values of keys {} in {} with path {} changed", changedKeys, kind, path);
+                    return new ConfigData(newValues);
+                });
+
+                if (changed != null)    {
+                    subscription.callback.onChange(path, changed);
+                }
+            }
+        }
+
+        @Override
+        public void onAdd(T resource) {
+            update(resource);
+        }
+
+        @Override
+        public void onUpdate(T oldResource, T newResource) {
+            update(newResource);
+        }
+
+        @Override
+        public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+            LOG.warn("{} with path {} was deleted", kind, path);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigData;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of the resolved configurations. The entries are keyed by the namespace and name of the resource and
+ * the requested keys. Every entry remembers the resource version it was built from and is used only while the
+ * resource version matches and the entry is not older than the TTL. When the cache exceeds the maximum number of
+ * entries or the maximum size, the least recently used entries are evicted.
+ */
+final class ResultCache {
+    // Rough estimate of the memory used by the entry itself (key, map nodes, etc.)
+    private static final long ENTRY_OVERHEAD_BYTES = 128L;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long ttlMs;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes = 0L;
+    private long hits = 0L;
+    private long misses = 0L;
+    private long evictions = 0L;
+
+    /**
+     * Creates the cache
+     *
+     * @param maxEntries    Maximum number of entries in the cache
+     * @param maxBytes      Maximum estimated size of the cached values in bytes
+     * @param ttlMs         Maximum age of the entries in milliseconds
+     * @param clock         Clock returning the current time in milliseconds
+     */
+    ResultCache(int maxEntries, long maxBytes, long ttlMs, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.ttlMs = ttlMs;
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the cached configuration
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     * @param keys                  Requested keys or null if all keys were requested
+     * @param resourceVersion       Current resource version of the resource
+     *
+     * @return  The cached configuration or null if it is not cached or it is not valid anymore
+     */
+    synchronized ConfigData get(KubernetesResourceIdentifier resourceIdentifier, Set<String> keys, String resourceVersion)   {
+        Key key = new Key(resourceIdentifier, keys);
+        Entry entry = entries.get(key);
+
+        if (entry != null
+                && entry.resourceVersion.equals(resourceVersion)
+                && clock.getAsLong() - entry.created < ttlMs) {
+            hits++;
+            return entry.data;
+        } else {
+            if (entry != null)  {
+                remove(key);
+            }
+
+            misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Adds the configuration to the cache and evicts the least recently used entries if needed. Configurations
+     * without resource version are not cached.
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     * @param keys                  Requested keys or null if all keys were requested
+     * @param resourceVersion       Resource version of the resource the configuration was built from
+     * @param values                The configuration values
+     *
+     * @return  The configuration which should be returned to the caller
+     */
+    synchronized ConfigData put(KubernetesResourceIdentifier resourceIdentifier, Set<String> keys, String resourceVersion, Map<String, String> values)   {
+        Key key = new Key(resourceIdentifier, keys);
+        ConfigData data = new ConfigData(Collections.unmodifiableMap(values));
+
+        if (resourceVersion != null)    {
+            remove(key);
+
+            Entry entry = new Entry(resourceVersion, data, clock.getAsLong(), estimateSize(key, values));
+            entries.put(key, entry);
+            bytes += entry.size;
+
+            evict();
+        }
+
+        return data;
+    }
+
+    private void remove(Key key)    {
+        Entry removed = entries.remove(key);
+
+        if (removed != null)    {
+            bytes -= removed.size;
+        }
+    }
+
+    private void evict()    {
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext())   {
+            Entry entry = iterator.next();
+            iterator.remove();
+            bytes -= entry.size;
+            evictions++;
+        }
+    }
+
+    private static long estimateSize(Key key, Map<String, String> values)   {
+        long size = ENTRY_OVERHEAD_BYTES + 2L * key.resourceIdentifier.toString().length();
+
+        for (Map.Entry<String, String> value : values.entrySet())  {
+            size += 2L * (value.getKey().length() + value.getValue().length());
+        }
+
+        return size;
+    }
+
+    /**
+     * @return  Number of cache hits
+     */
+    synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return  Number of cache misses
+     */
+    synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return  Number of entries evicted because of the size limits
+     */
+    synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * @return  Number of entries in the cache
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return  Estimated size of the cached entries in bytes
+     */
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Key of the cache entries
+     */
+    private static final class Key {
+        private final KubernetesResourceIdentifier resourceIdentifier;
+        private final Set<String> keys;
+
+        Key(KubernetesResourceIdentifier resourceIdentifier, Set<String> keys) {
+            this.resourceIdentifier = resourceIdentifier;
+            this.keys = keys == null ? null : Set.copyOf(keys);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || getClass() != o.getClass()) {
+                return false;
+            } else {
+                Key key = (Key) o;
+                return resourceIdentifier.equals(key.resourceIdentifier) && Objects.equals(keys, key.keys);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourceIdentifier, keys);
+        }
+    }
+
+    /**
+     * Cache entry
+     */
+    private static final class Entry {
+        private final String resourceVersion;
+        private final ConfigData data;
+        private final long created;
+        private final long size;
+
+        Entry(String resourceVersion, ConfigData data, long created, long size) {
+            this.resourceVersion = resourceVersion;
+            this.data = data;
+            this.created = created;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent requests for the same key. When a request for a given key is already in progress, the other
+ * callers do not start their own request but wait for the result (or the exception) of the request in progress.
+ * Nothing is cached once the request completes.
+ *
+ * @param <K>   Type of the key
+ * @param <V>   Type of the result
+ */
+final class SingleFlight<K, V> {
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the request or joins the request for the same key which is already in progress
+     *
+     * @param key       Key of the request
+     * @param request   The request which should be executed if no other request for the same key is in progress
+     *
+     * @return  Result of the request
+     */
+    V execute(K key, Supplier<V> request)   {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+        if (existing != null)   {
+            return join(existing);
+        }
+
+        try {
+            V result = request.get();
+            future.complete(result);
+            return result;
+        } catch (Throwable t)    {
+            // Errors have to complete the future as well, otherwise the waiting callers would be blocked forever
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * @param key   Key of the request
+     *
+     * @return  Number of callers waiting for the request in progress for given key
+     */
+    int waiting(K key)  {
+        CompletableFuture<V> future = inFlight.get(key);
+        return future != null ? future.getNumberOfDependents() : 0;
+    }
+
+    private static <V> V join(CompletableFuture<V> future)  {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConfigException("Interrupted while waiting for the configuration");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)   {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error)   {
+                throw (Error) e.getCause();
+            } else {
+                throw new ConfigException("Failed to get the configuration: " + e.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts and decrypts the snapshots using AES-GCM. The encrypted content starts with the random 12-byte IV followed
+ * by the ciphertext and the authentication tag.
+ */
+final class SnapshotCipher {
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final SecretKeySpec key;
+
+    /**
+     * Creates the cipher
+     *
+     * @param key   128, 192 or 256-bit AES key
+     */
+    SnapshotCipher(byte[] key) {
+        if (key.length != 16 && key.length != 24 && key.length != 32)  {
+            throw new ConfigException("The snapshot encryption key has to be a Base64 encoded 128, 192 or 256-bit AES key");
+        }
+
+        this.key = new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * Encrypts the content
+     *
+     * @param associatedData    Data which are authenticated, but not encrypted
+     * @param plaintext         Content which should be encrypted
+     *
+     * @return  The encrypted content
+     *
+     * @throws GeneralSecurityException     When the encryption fails
+     */
+    byte[] encrypt(byte[] associatedData, byte[] plaintext) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_BYTES];
+        RANDOM.nextBytes(iv);
+
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+        cipher.updateAAD(associatedData);
+        byte[] ciphertext = cipher.doFinal(plaintext);
+
+        return ByteBuffer.allocate(IV_BYTES + ciphertext.length).put(iv).put(ciphertext).array();
+    }
+
+    /**
+     * Decrypts the content
+     *
+     * @param associatedData    Data which were authenticated when the content was encrypted
+     * @param encrypted         The encrypted content
+     *
+     * @return  The decrypted content
+     *
+     * @throws GeneralSecurityException     When the content cannot be decrypted or fails the authentication
+     */
+    byte[] decrypt(byte[] associatedData, byte[] encrypted) throws GeneralSecurityException {
+        if (encrypted.length < IV_BYTES)    {
+            throw new GeneralSecurityException("The encrypted content is too short");
+        }
+
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, encrypted, 0, IV_BYTES));
+        cipher.updateAAD(associatedData);
+
+        return cipher.doFinal(encrypted, IV_BYTES, encrypted.length - IV_BYTES);
+    }
+}
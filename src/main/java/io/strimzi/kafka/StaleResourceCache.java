@@ -0,0 +1,124 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps the last successfully retrieved version of the resources. When a resource is requested and its last known
+ * good version is not older than the maximum staleness, it is returned immediately and the resource is refreshed in
+ * the background. At most one background refresh per resource runs at any time.
+ *
+ * @param <T>   Resource
+ */
+final class StaleResourceCache<T> implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(StaleResourceCache.class);
+
+    private final long maxStalenessMs;
+    private final LongSupplier clock;
+    private final Map<KubernetesResourceIdentifier, Entry<T>> resources = new ConcurrentHashMap<>();
+    private final Set<KubernetesResourceIdentifier> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+
+    /**
+     * Creates the cache
+     *
+     * @param kind              Kind of the Kubernetes resource used to name the refresh thread
+     * @param maxStalenessMs    Maximum age in milliseconds of the resources which can be returned
+     * @param clock             Clock returning the current time in milliseconds
+     */
+    StaleResourceCache(String kind, long maxStalenessMs, LongSupplier clock) {
+        this.maxStalenessMs = maxStalenessMs;
+        this.clock = clock;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kubernetes-" + kind.toLowerCase(Locale.ROOT) + "-config-provider-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the last known good version of the resource if it is not too old and schedules its refresh
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     * @param refresh               Refreshes the resource. It is expected to update this cache when it succeeds.
+     *
+     * @return  The last known good resource or null if there is none or it is too old
+     */
+    T getAndRefresh(KubernetesResourceIdentifier resourceIdentifier, Consumer<KubernetesResourceIdentifier> refresh)   {
+        Entry<T> entry = resources.get(resourceIdentifier);
+
+        if (entry == null || clock.getAsLong() - entry.updated > maxStalenessMs)    {
+            return null;
+        }
+
+        if (refreshing.add(resourceIdentifier)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        refresh.accept(resourceIdentifier);
+                    } catch (RuntimeException e) {
+                        LOG.warn("Background refresh of {} failed. The last known good version will be used until it is older than {} ms.", resourceIdentifier, maxStalenessMs, e);
+                    } finally {
+                        refreshing.remove(resourceIdentifier);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // The cache is closed
+                refreshing.remove(resourceIdentifier);
+            }
+        }
+
+        return entry.resource;
+    }
+
+    /**
+     * Updates the last known good version of the resource
+     *
+     * @param resourceIdentifier    Identifier of the resource
+     * @param resource              The resource or null if it does not exist anymore
+     */
+    void update(KubernetesResourceIdentifier resourceIdentifier, T resource)   {
+        if (resource != null)   {
+            resources.put(resourceIdentifier, new Entry<>(resource, clock.getAsLong()));
+        } else {
+            resources.remove(resourceIdentifier);
+        }
+    }
+
+    /**
+     * Stops the background refreshes
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Last known good resource
+     *
+     * @param <T>   Resource
+     */
+    private static final class Entry<T> {
+        private final T resource;
+        private final long updated;
+
+        Entry(T resource, long updated) {
+            this.resource = resource;
+            this.updated = updated;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SHA-256 digests of the last resolved values of every key for each path and key set. Comparing the digests shows
+ * which keys really changed, so a new resource version which changed only other keys of the resource is not treated
+ * as a change. Only the digests are kept, not the values themselves.
+ */
+final class ValueDigests {
+    private final Map<List<Object>, Map<String, ByteBuffer>> digests = new ConcurrentHashMap<>();
+
+    /**
+     * Updates the digests of the values resolved for the path and the key set
+     *
+     * @param path      Path to the Kubernetes resource
+     * @param keys      Requested keys or null if all keys were requested
+     * @param values    The resolved values
+     *
+     * @return  Keys whose values changed, were added or were removed since the last update. All keys when there was
+     *          no previous update.
+     */
+    Set<String> update(String path, Set<String> keys, Map<String, String> values)  {
+        Map<String, ByteBuffer> newDigests = digests(values);
+        Map<String, ByteBuffer> oldDigests = digests.put(key(path, keys), newDigests);
+
+        Set<String> changed = new TreeSet<>();
+
+        if (oldDigests == null) {
+            changed.addAll(newDigests.keySet());
+        } else {
+            newDigests.forEach((name, digest) -> {
+                if (!digest.equals(oldDigests.get(name)))   {
+                    changed.add(name);
+                }
+            });
+
+            oldDigests.keySet().stream().filter(name -> !newDigests.containsKey(name)).forEach(changed::add);
+        }
+
+        return changed;
+    }
+
+    /**
+     * Removes the digests of the path and the key set
+     *
+     * @param path      Path to the Kubernetes resource
+     * @param keys      Requested keys or null if all keys were requested
+     */
+    void remove(String path, Set<String> keys)  {
+        digests.remove(key(path, keys));
+    }
+
+    /**
+     * Removes all digests
+     */
+    void clear()    {
+        digests.clear();
+    }
+
+    private static List<Object> key(String path, Set<String> keys)   {
+        return Arrays.asList(path, keys != null ? Set.copyOf(keys) : null);
+    }
+
+    private static Map<String, ByteBuffer> digests(Map<String, String> values)   {
+        Map<String, ByteBuffer> digests = new HashMap<>(values.size());
+
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+
+            for (Map.Entry<String, String> value : values.entrySet())   {
+                byte[] content = Objects.requireNonNullElse(value.getValue(), "").getBytes(StandardCharsets.UTF_8);
+                digests.put(value.getKey(), ByteBuffer.wrap(sha256.digest(content)));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+
+        return digests;
+    }
+}
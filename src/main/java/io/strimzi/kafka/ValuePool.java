@@ -0,0 +1,131 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool deduplicating identical values, such as CA bundles or truststores used in many Secrets and Config Maps. The
+ * values are keyed by the SHA-256 hash of their content and referenced only weakly, so a value is removed from the
+ * pool once it is not used by any configuration anymore.
+ *
+ * The shared pool is used by all provider instances in the JVM.
+ */
+final class ValuePool {
+    static final ValuePool SHARED = new ValuePool();
+
+    private final Map<ByteBuffer, ValueReference> values = new ConcurrentHashMap<>();
+    private final ReferenceQueue<String> collected = new ReferenceQueue<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    /**
+     * Returns the pooled value with the same content or creates a new value and adds it to the pool
+     *
+     * @param content   UTF-8 encoded content of the value
+     *
+     * @return  The pooled value
+     */
+    String intern(byte[] content)  {
+        return intern(content, null);
+    }
+
+    /**
+     * Returns the pooled value with the same content or adds the value to the pool
+     *
+     * @param value     The value
+     *
+     * @return  The pooled value
+     */
+    String intern(String value)  {
+        return intern(value.getBytes(StandardCharsets.UTF_8), value);
+    }
+
+    private String intern(byte[] content, String value)  {
+        expungeCollected();
+
+        ByteBuffer digest = ByteBuffer.wrap(sha256(content));
+
+        while (true)    {
+            ValueReference reference = values.get(digest);
+            String pooled = reference != null ? reference.get() : null;
+
+            if (pooled != null) {
+                hits.incrementAndGet();
+                // Strings use up to two bytes per character
+                bytesSaved.addAndGet(2L * pooled.length());
+                return pooled;
+            }
+
+            String created = value != null ? value : new String(content, StandardCharsets.UTF_8);
+            ValueReference createdReference = new ValueReference(digest, created, collected);
+
+            if (reference == null ? values.putIfAbsent(digest, createdReference) == null : values.replace(digest, reference, createdReference))  {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of the values which were garbage collected
+     */
+    private void expungeCollected()  {
+        Reference<? extends String> reference;
+
+        while ((reference = collected.poll()) != null)  {
+            values.remove(((ValueReference) reference).digest, reference);
+        }
+    }
+
+    /**
+     * @return  Number of values which were served from the pool instead of keeping another copy
+     */
+    long hits() {
+        return hits.get();
+    }
+
+    /**
+     * @return  Estimated number of bytes saved by serving the values from the pool
+     */
+    long bytesSaved()   {
+        return bytesSaved.get();
+    }
+
+    /**
+     * @return  Number of values in the pool including the values which were garbage collected but not removed yet
+     */
+    int size()  {
+        return values.size();
+    }
+
+    private static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Weak reference to the pooled value which remembers its key
+     */
+    private static final class ValueReference extends WeakReference<String> {
+        private final ByteBuffer digest;
+
+        ValueReference(ByteBuffer digest, String value, ReferenceQueue<String> queue) {
+            super(value, queue);
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Values built from the last seen version of the resources, such as the lazily decoded values of the Secrets. The
+ * values are reused as long as the resource version does not change and are replaced when it changes. At most the
+ * given number of the most recently used resources is kept, so the resources which were deleted or are not used
+ * anymore are eventually evicted.
+ */
+final class VersionedValues {
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Creates the versioned values
+     *
+     * @param maxEntries    Maximum number of resources whose values are kept
+     */
+    VersionedValues(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Creates the versioned values from the provider configuration. The number of the resources is limited by the
+     * cache.max.entries option.
+     *
+     * @param config    Configuration of the provider
+     *
+     * @return  The versioned values
+     */
+    static VersionedValues fromConfig(KubernetesConfigProviderConfig config)   {
+        return new VersionedValues(config.cacheMaxEntries());
+    }
+
+    /**
+     * Creates the versioned values limited by the default value of the cache.max.entries option. They are used until
+     * the provider is configured.
+     *
+     * @return  The versioned values
+     */
+    static VersionedValues withDefaults()   {
+        return new VersionedValues(KubernetesConfigProviderConfig.CACHE_MAX_ENTRIES_DEFAULT);
+    }
+
+    /**
+     * Returns the values built from the same version of the resource or builds them
+     *
+     * @param resource  The resource
+     * @param values    Builds the values from the resource. It is called outside the lock, so slow builds (such as
+     *                  writing the values into files) do not block the other resources.
+     *
+     * @return  The values of the resource
+     */
+    Map<String, String> get(HasMetadata resource, Supplier<Map<String, String>> values)  {
+        String key = resource.getMetadata().getNamespace() + "/" + resource.getMetadata().getName();
+        String resourceVersion = resource.getMetadata().getResourceVersion();
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+
+            if (entry != null && resourceVersion != null && resourceVersion.equals(entry.resourceVersion))    {
+                return entry.values;
+            }
+        }
+
+        Entry entry = new Entry(resourceVersion, values.get());
+
+        synchronized (this) {
+            entries.put(key, entry);
+
+            if (entries.size() > maxEntries)    {
+                entries.remove(entries.keySet().iterator().next());
+            }
+        }
+
+        return entry.values;
+    }
+
+    /**
+     * @return  Number of resources whose values are kept
+     */
+    synchronized int size()  {
+        return entries.size();
+    }
+
+    /**
+     * Values of a single version of a resource
+     */
+    private static final class Entry {
+        private final String resourceVersion;
+        private final Map<String, String> values;
+
+        Entry(String resourceVersion, Map<String, String> values) {
+            this.resourceVersion = resourceVersion;
+            this.values = values;
+        }
+    }
+}
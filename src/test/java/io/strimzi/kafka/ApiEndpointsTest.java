@@ -0,0 +1,124 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ApiEndpointsTest {
+    private static ApiEndpoints<String> endpoints(long hedgeDelayMs, AtomicLong clock, String... clients)  {
+        Map<String, String> urls = new LinkedHashMap<>();
+
+        for (String client : clients)   {
+            urls.put("https://" + client + ":6443", client);
+        }
+
+        return new ApiEndpoints<>(urls, hedgeDelayMs, clock::get, client -> { });
+    }
+
+    @Test
+    public void testPrefersFastestEndpoint()   {
+        AtomicLong clock = new AtomicLong(0);
+        Map<String, Long> latencies = Map.of("first", 100L, "second", 10L);
+        ApiEndpoints<String> endpoints = endpoints(0, clock, "first", "second");
+
+        // Endpoints without any measurement are used in the configured order
+        assertThat(endpoints.preferredOrder(), is(List.of("https://first:6443", "https://second:6443")));
+
+        assertThat(endpoints.call(client -> client + "-" + clock.addAndGet(latencies.get(client))), is("first-100"));
+        assertThat(endpoints.call(client -> client + "-" + clock.addAndGet(latencies.get(client))), is("second-110"));
+
+        assertThat(endpoints.preferredOrder(), is(List.of("https://second:6443", "https://first:6443")));
+        assertThat(endpoints.call(client -> client), is("second"));
+
+        endpoints.close();
+    }
+
+    @Test
+    public void testFailover()   {
+        AtomicLong clock = new AtomicLong(0);
+        ApiEndpoints<String> endpoints = endpoints(0, clock, "first", "second");
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(endpoints.call(client -> {
+                if ("first".equals(client)) {
+                    throw new KubernetesClientException("Connection refused");
+                }
+
+                return client;
+            }), is("second"));
+        }
+
+        // The failing endpoint is unhealthy and is not tried first anymore
+        assertThat(endpoints.preferredOrder(), is(List.of("https://second:6443", "https://first:6443")));
+
+        // Unhealthy endpoint is tried again after it was not used for a while
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThat(endpoints.preferredOrder(), is(List.of("https://first:6443", "https://second:6443")));
+
+        // Errors which are not caused by the endpoint are not retried on another endpoint
+        KubernetesClientException e = assertThrows(KubernetesClientException.class, () -> endpoints.call(client -> {
+            throw new KubernetesClientException("Forbidden " + client, 403, null);
+        }));
+        assertThat(e.getMessage(), is("Forbidden first"));
+
+        // The last failure is thrown when all endpoints failed
+        e = assertThrows(KubernetesClientException.class, () -> endpoints.call(client -> {
+            throw new KubernetesClientException("Unavailable " + client, 503, null);
+        }));
+        assertThat(e.getMessage(), is("Unavailable second"));
+
+        endpoints.close();
+    }
+
+    @Test
+    public void testHedging() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(0);
+        CountDownLatch slowResponse = new CountDownLatch(1);
+        ApiEndpoints<String> endpoints = endpoints(50, clock, "slow", "fast");
+
+        // The slow endpoint does not respond within the hedge delay and the response from the other endpoint is used
+        assertThat(endpoints.call(client -> {
+            if ("slow".equals(client))  {
+                try {
+                    slowResponse.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return client;
+        }), is("fast"));
+
+        slowResponse.countDown();
+
+        // The endpoint which fails fast is replaced by the other endpoint without waiting for the hedge delay
+        assertThat(endpoints.call(client -> {
+            if ("slow".equals(client))  {
+                throw new KubernetesClientException("Connection refused");
+            }
+
+            return client;
+        }), is("fast"));
+
+        // Hedged request fails only when both endpoints fail
+        assertThrows(KubernetesClientException.class, () -> endpoints.call(client -> {
+            throw new KubernetesClientException("Unavailable " + client, 503, null);
+        }));
+
+        endpoints.close();
+    }
+}
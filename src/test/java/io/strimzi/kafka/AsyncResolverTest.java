@@ -0,0 +1,74 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigData;
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AsyncResolverTest {
+    @Test
+    public void testResolveAllFailsWithFirstFailure() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncResolver resolver = new AsyncResolver(2, (path, keys) -> {
+            if ("slow".equals(path))    {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return new ConfigData(Map.of());
+            } else {
+                throw new ConfigException("Failed to resolve " + path);
+            }
+        });
+
+        Map<String, Set<String>> keysByPath = new LinkedHashMap<>();
+        keysByPath.put("slow", null);
+        keysByPath.put("failing", null);
+
+        // The failure is reported while the slow path is still being resolved
+        CompletableFuture<Map<String, ConfigData>> result = resolver.resolveAll(keysByPath);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        assertThat(e.getCause().getMessage(), is("Failed to resolve failing"));
+
+        release.countDown();
+        resolver.close();
+    }
+
+    @Test
+    public void testResolveAllWithoutPaths() throws Exception {
+        AsyncResolver resolver = new AsyncResolver(2, (path, keys) -> new ConfigData(Map.of()));
+
+        assertThat(resolver.resolveAll(Map.of()).get(), is(Map.of()));
+
+        resolver.close();
+    }
+
+    @Test
+    public void testClosedResolverReturnsFailedFutures()  {
+        AsyncResolver resolver = new AsyncResolver(2, (path, keys) -> new ConfigData(Map.of()));
+        resolver.close();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> resolver.resolve("my-path", null).get());
+        assertThat(e.getCause() instanceof ConfigException, is(true));
+
+        e = assertThrows(ExecutionException.class, () -> resolver.resolveAll(Map.of("my-path", Set.of())).get());
+        assertThat(e.getCause() instanceof ConfigException, is(true));
+    }
+}
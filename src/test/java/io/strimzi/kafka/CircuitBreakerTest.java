@@ -0,0 +1,60 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CircuitBreakerTest {
+    @Test
+    public void testOpensAfterConsecutiveFailures()    {
+        AtomicLong now = new AtomicLong(0L);
+        CircuitBreaker breaker = new CircuitBreaker(3, 1_000L, now::get);
+
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertThat(breaker.isOpen(), is(false));
+        assertThat(breaker.allowRequest(), is(true));
+
+        breaker.recordFailure();
+        assertThat(breaker.isOpen(), is(true));
+        assertThat(breaker.allowRequest(), is(false));
+
+        now.set(999L);
+        assertThat(breaker.allowRequest(), is(false));
+    }
+
+    @Test
+    public void testHalfOpen()    {
+        AtomicLong now = new AtomicLong(0L);
+        CircuitBreaker breaker = new CircuitBreaker(1, 1_000L, now::get);
+
+        breaker.recordFailure();
+        assertThat(breaker.allowRequest(), is(false));
+
+        // Only one trial request is allowed and its failure opens the breaker again
+        now.set(1_000L);
+        assertThat(breaker.allowRequest(), is(true));
+        assertThat(breaker.allowRequest(), is(false));
+        breaker.recordFailure();
+        now.set(1_500L);
+        assertThat(breaker.allowRequest(), is(false));
+
+        // Successful trial request closes the breaker
+        now.set(2_000L);
+        assertThat(breaker.allowRequest(), is(true));
+        breaker.recordSuccess();
+        assertThat(breaker.isOpen(), is(false));
+        assertThat(breaker.allowRequest(), is(true));
+        assertThat(breaker.allowRequest(), is(true));
+    }
+}
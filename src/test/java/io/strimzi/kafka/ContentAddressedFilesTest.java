@@ -0,0 +1,103 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ContentAddressedFilesTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testIdenticalContentIsDeduplicated() throws IOException {
+        ContentAddressedFiles files = new ContentAddressedFiles(tempDir.resolve("files"), 4);
+
+        String path = files.write("my-keystore".getBytes(StandardCharsets.UTF_8));
+        assertThat(Files.readString(Paths.get(path)), is("my-keystore"));
+        assertThat(Paths.get(path).getParent(), is(tempDir.resolve("files").toAbsolutePath()));
+
+        // Existing file is not written again
+        long modified = Files.getLastModifiedTime(Paths.get(path)).toMillis();
+        assertThat(files.write("my-keystore".getBytes(StandardCharsets.UTF_8)), is(path));
+        assertThat(Files.getLastModifiedTime(Paths.get(path)).toMillis(), is(modified));
+
+        assertThat(files.write("my-other-keystore".getBytes(StandardCharsets.UTF_8)), is(not(path)));
+
+        try (var entries = Files.list(tempDir.resolve("files"))) {
+            assertThat(entries.count(), is(2L));
+        }
+    }
+
+    @Test
+    public void testExistingFileWithDifferentContentIsReplaced() throws IOException {
+        ContentAddressedFiles files = new ContentAddressedFiles(tempDir, 4);
+
+        Path path = Paths.get(files.write("my-keystore".getBytes(StandardCharsets.UTF_8)));
+        Files.writeString(path, "my-tampered");
+
+        assertThat(files.write("my-keystore".getBytes(StandardCharsets.UTF_8)), is(path.toString()));
+        assertThat(Files.readString(path), is("my-keystore"));
+    }
+
+    @Test
+    public void testDirectoryHasToBePrivate() throws IOException {
+        Path directory = Files.createDirectory(tempDir.resolve("shared"), PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwxr-xr-x")));
+        ContentAddressedFiles files = new ContentAddressedFiles(directory, 4);
+
+        ConfigException e = assertThrows(ConfigException.class, () -> files.write("my-keystore".getBytes(StandardCharsets.UTF_8)));
+        assertThat(e.getMessage(), containsString("rwx------"));
+
+        Files.setPosixFilePermissions(directory, PosixFilePermissions.fromString("rwx------"));
+        assertThat(Files.readString(Paths.get(files.write("my-keystore".getBytes(StandardCharsets.UTF_8)))), is("my-keystore"));
+    }
+
+    @Test
+    public void testDefaultDirectoryIsPrivateToProcess() throws IOException {
+        ContentAddressedFiles files = new ContentAddressedFiles(null, 4);
+        ContentAddressedFiles otherFiles = new ContentAddressedFiles(null, 4);
+
+        Path path = Paths.get(files.write("my-keystore".getBytes(StandardCharsets.UTF_8)));
+        assertThat(otherFiles.write("my-keystore".getBytes(StandardCharsets.UTF_8)), is(path.toString()));
+        assertThat(path.getParent().getFileName().toString(), startsWith("kafka-kubernetes-config-provider-"));
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(path.getParent())), is("rwx------"));
+    }
+
+    @Test
+    public void testValueOrPath() throws IOException {
+        ContentAddressedFiles files = new ContentAddressedFiles(tempDir, 4);
+
+        assertThat(files.valueOrPath("abcd"), is("abcd"));
+        assertThat(Files.readString(Paths.get(files.valueOrPath("abcde"))), is("abcde"));
+    }
+
+    @Test
+    public void testLargeSecretValues() throws IOException {
+        ContentAddressedFiles files = new ContentAddressedFiles(tempDir, 4);
+        Base64.Encoder encoder = Base64.getEncoder();
+        LazyDecodedValues values = new LazyDecodedValues("1", Map.of("user", encoder.encodeToString("abc".getBytes(StandardCharsets.UTF_8)),
+                "keystore.p12", encoder.encodeToString(new byte[] {0, 1, 2, 3, 4, 5})), new LargeValues(files, null, 0));
+
+        assertThat(values.get("user"), is("abc"));
+        assertThat(Files.readAllBytes(Paths.get(values.get("keystore.p12"))), is(new byte[] {0, 1, 2, 3, 4, 5}));
+    }
+}
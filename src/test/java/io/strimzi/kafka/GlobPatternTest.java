@@ -0,0 +1,72 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GlobPatternTest {
+    private static final List<String> KEYS = List.of("ca.crt", "ca2.crt", "ca.key", "tls-a.crt", "tls-b.crt", "tls-b.key",
+            "tls-ab.crt", "test.config", "test2.config", "test.properties", "a-b", "a_b", "a.b.c", "a{b}", "x*y", "[x]",
+            "my/key", "my/other/key", "");
+
+    private static final List<String> PATTERNS = List.of("ca.crt", "*.crt", "tls-*.crt", "tls-?.crt", "tls-[ab].crt",
+            "tls-[!a].*", "tls-[a-b]*", "*.{crt,key}", "{ca,tls-a}.crt", "a[-_]b", "test*", "*", "**", "a.b.c", "a\\{b}",
+            "x\\*y", "\\[x]", "my/*", "my/**", "*/key", "a{b}", "[^x]*", "ca.crt}", "*,*", "[-a]*", "[a-]*", "[!-]*");
+
+    @Test
+    public void testMatchingLikeFileSystemPathMatcher()    {
+        for (String glob : PATTERNS)    {
+            PathMatcher pathMatcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+            GlobPattern pattern = GlobPattern.compile(glob);
+
+            for (String key : KEYS) {
+                assertThat("Pattern " + glob + " with key " + key, pattern.matches(key), is(pathMatcher.matches(Paths.get(key))));
+            }
+        }
+    }
+
+    @Test
+    public void testLiteralPatterns()    {
+        assertThat(GlobPattern.compile("ca.crt").isLiteral(), is(true));
+        assertThat(GlobPattern.compile("ca.crt}").isLiteral(), is(true));
+        assertThat(GlobPattern.compile("*.crt").isLiteral(), is(false));
+        assertThat(GlobPattern.compile("ca\\.crt").isLiteral(), is(false));
+    }
+
+    @Test
+    public void testSelect()    {
+        Map<String, String> values = Map.of("ca.crt", "ca", "tls-b.crt", "b", "tls-a.crt", "a", "tls-a.key", "key");
+        TreeSet<String> sortedKeys = new TreeSet<>(values.keySet());
+
+        assertThat(GlobPattern.compile("ca.crt").select(null, values, ","), is("ca"));
+        assertThat(GlobPattern.compile("missing").select(null, values, ","), is(""));
+        assertThat(GlobPattern.compile("tls-*.crt").select(sortedKeys, values, ","), is("a,b"));
+        assertThat(GlobPattern.compile("*.crt").select(sortedKeys, values, ","), is("ca,a,b"));
+        assertThat(GlobPattern.compile("*.cfg").select(sortedKeys, values, ","), is(""));
+    }
+
+    @Test
+    public void testInvalidPatterns()    {
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("ca.crt\\"));
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("{ca,{tls}}"));
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("{ca,tls"));
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("[ca"));
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("[b-a]"));
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("[a/b]"));
+        assertThrows(ConfigException.class, () -> GlobPattern.compile("[a-b-c]"));
+    }
+}
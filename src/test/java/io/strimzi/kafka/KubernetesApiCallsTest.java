@@ -0,0 +1,46 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KubernetesApiCallsTest {
+    private static final KubernetesResourceIdentifier RESOURCE = KubernetesResourceIdentifier.of("my-namespace", "my-secret");
+
+    @Test
+    public void testCircuitBreakerWithUnexpectedFailureOfTrialRequest()   {
+        KubernetesConfigProviderConfig config = new KubernetesConfigProviderConfig(Map.of(
+                KubernetesConfigProviderConfig.CIRCUIT_BREAKER_FAILURE_THRESHOLD_CONFIG, "1",
+                KubernetesConfigProviderConfig.CIRCUIT_BREAKER_OPEN_MS_CONFIG, "0"));
+
+        try (KubernetesClient client = new KubernetesClientBuilder().withConfig(new ConfigBuilder().withMasterUrl("https://localhost:6443").build()).build();
+                KubernetesApiCalls calls = new KubernetesApiCalls("Secret", client, config, new ProviderMetrics("Secret")))   {
+            // Opens the breaker
+            assertThrows(ConfigException.class, () -> calls.call(RESOURCE, c -> {
+                throw new KubernetesClientException("Connection refused");
+            }));
+
+            // The half-open trial request fails with an exception which is not a Kubernetes client exception
+            assertThrows(IllegalStateException.class, () -> calls.call(RESOURCE, c -> {
+                throw new IllegalStateException("Unexpected failure");
+            }));
+
+            // The failed trial opens the breaker again and the next trial request is allowed once the open time passes
+            assertThat(calls.call(RESOURCE, c -> "my-value"), is("my-value"));
+            assertThat(calls.call(RESOURCE, c -> "my-other-value"), is("my-other-value"));
+        }
+    }
+}
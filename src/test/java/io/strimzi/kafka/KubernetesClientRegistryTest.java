@@ -0,0 +1,86 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.ConfigBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KubernetesClientRegistryTest {
+    private static KubernetesClient newClient()   {
+        return new KubernetesClientBuilder()
+                .withConfig(new ConfigBuilder().withMasterUrl("https://localhost:6443").build())
+                .build();
+    }
+
+    @Test
+    public void testClientIsSharedAndReferenceCounted()    {
+        KubernetesClient client1 = KubernetesClientRegistry.acquire("test-shared", KubernetesClientRegistryTest::newClient);
+        KubernetesClient client2 = KubernetesClientRegistry.acquire("test-shared", KubernetesClientRegistryTest::newClient);
+
+        assertThat(client1, is(sameInstance(client2)));
+
+        KubernetesClientRegistry.release("test-shared");
+        assertThat(client1.getHttpClient().isClosed(), is(false));
+
+        KubernetesClientRegistry.release("test-shared");
+        assertThat(client1.getHttpClient().isClosed(), is(true));
+
+        // Once closed, a new client is created
+        KubernetesClient client3 = KubernetesClientRegistry.acquire("test-shared", KubernetesClientRegistryTest::newClient);
+        assertThat(client3, is(not(sameInstance(client1))));
+        KubernetesClientRegistry.release("test-shared");
+    }
+
+    @Test
+    public void testClientsWithDifferentConfigurations()    {
+        KubernetesClient client1 = KubernetesClientRegistry.acquire("test-config-1", KubernetesClientRegistryTest::newClient);
+        KubernetesClient client2 = KubernetesClientRegistry.acquire("test-config-2", KubernetesClientRegistryTest::newClient);
+
+        assertThat(client1, is(not(sameInstance(client2))));
+
+        KubernetesClientRegistry.release("test-config-1");
+        assertThat(client1.getHttpClient().isClosed(), is(true));
+        assertThat(client2.getHttpClient().isClosed(), is(false));
+
+        KubernetesClientRegistry.release("test-config-2");
+        assertThat(client2.getHttpClient().isClosed(), is(true));
+    }
+
+    @Test
+    public void testKeyIsDerivedFromClientConfiguration()    {
+        String key = KubernetesClientRegistry.key(new ConfigBuilder().withMasterUrl("https://localhost:6443").withOauthToken("my-token").build());
+
+        assertThat(KubernetesClientRegistry.key(new ConfigBuilder().withMasterUrl("https://localhost:6443").withOauthToken("my-token").build()), is(key));
+        assertThat(KubernetesClientRegistry.key(new ConfigBuilder().withMasterUrl("https://other-host:6443").withOauthToken("my-token").build()), is(not(key)));
+        assertThat(KubernetesClientRegistry.key(new ConfigBuilder().withMasterUrl("https://localhost:6443").withOauthToken("my-other-token").build()), is(not(key)));
+    }
+
+    @Test
+    public void testSharedClientIsReleasedWhenConfigurationFails(@TempDir Path tempDir)    {
+        KubernetesSecretConfigProvider provider = new KubernetesSecretConfigProvider();
+        provider.configure(Map.of("client.shared", "true"));
+        KubernetesClient shared = provider.client;
+
+        // Snapshots without the encryption key are not valid, but are detected only after the client is acquired
+        KubernetesSecretConfigProvider failed = new KubernetesSecretConfigProvider();
+        assertThrows(ConfigException.class, () -> failed.configure(Map.of("client.shared", "true", "snapshot.directory", tempDir.toString())));
+
+        provider.close();
+        assertThat(shared.getHttpClient().isClosed(), is(true));
+    }
+}
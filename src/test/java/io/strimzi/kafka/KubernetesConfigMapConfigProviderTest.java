@@ -0,0 +1,90 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import org.apache.kafka.common.config.ConfigData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class KubernetesConfigMapConfigProviderTest {
+    private static final String NAMESPACE = "my-namespace";
+    private static final String RESOURCE_NAME = "my-config-map";
+    private static final byte[] TRUSTSTORE = new byte[] {0, 1, 2, 3, 4, 5, 6, 7};
+
+    private KubernetesMockServer server;
+    private KubernetesClient client;
+
+    @BeforeEach
+    public void setUp()   {
+        server = TestUtils.crudMockServer();
+
+        client = server.createClient();
+        client.configMaps().inNamespace(NAMESPACE).resource(new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName(RESOURCE_NAME)
+                    .withNamespace(NAMESPACE)
+                .endMetadata()
+                .addToData("bootstrap.servers", "my-kafka:9092")
+                .addToData("ca.crt", "-----BEGIN CERTIFICATE-----")
+                .addToBinaryData("truststore.p12", Base64.getEncoder().encodeToString(TRUSTSTORE))
+                .build()).create();
+    }
+
+    @AfterEach
+    public void tearDown()   {
+        client.close();
+        server.destroy();
+    }
+
+    private KubernetesConfigMapConfigProvider provider(Map<String, String> config)   {
+        KubernetesConfigMapConfigProvider provider = new KubernetesConfigMapConfigProvider();
+        provider.configure(config, server.createClient());
+
+        return provider;
+    }
+
+    @Test
+    public void testDirectGet()   {
+        KubernetesConfigMapConfigProvider provider = provider(Map.of());
+
+        ConfigData config = provider.get(NAMESPACE + "/" + RESOURCE_NAME);
+
+        assertThat(config.data().size(), is(2));
+        assertThat(config.data().get("bootstrap.servers"), is("my-kafka:9092"));
+        assertThat(config.data().get("truststore.p12"), is(nullValue()));
+
+        provider.close();
+    }
+
+    @Test
+    public void testLargeAndBinaryValuesInFiles(@TempDir Path tempDir) throws IOException {
+        KubernetesConfigMapConfigProvider provider = provider(Map.of("files.enabled", "true", "files.directory", tempDir.toString(), "files.threshold.bytes", "16"));
+
+        ConfigData config = provider.get(NAMESPACE + "/" + RESOURCE_NAME);
+
+        assertThat(config.data().size(), is(3));
+        assertThat(config.data().get("bootstrap.servers"), is("my-kafka:9092"));
+        assertThat(Files.readString(Paths.get(config.data().get("ca.crt"))), is("-----BEGIN CERTIFICATE-----"));
+        assertThat(Files.readAllBytes(Paths.get(config.data().get("truststore.p12"))), is(TRUSTSTORE));
+
+        provider.close();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class KubernetesConfigProviderConfigTest {
+    @Test
+    public void testSeparator()   {
+        // The default line separator and whitespace separators are not trimmed
+        assertThat(new KubernetesConfigProviderConfig(Map.of()).separator(), is(System.lineSeparator()));
+        assertThat(new KubernetesConfigProviderConfig(Map.of("separator", " ")).separator(), is(" "));
+        assertThat(new KubernetesConfigProviderConfig(Map.of("separator", ",")).separator(), is(","));
+    }
+
+    @Test
+    public void testMaskedPasswords()   {
+        Map<String, ?> masked = KubernetesConfigProviderConfig.masked(Map.of("snapshot.encryption.key", "my-key", "snapshot.directory", "/tmp/snapshots"));
+
+        assertThat(masked.get("snapshot.encryption.key"), is("[hidden]"));
+        assertThat(masked.get("snapshot.directory"), is("/tmp/snapshots"));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Secret;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KubernetesProtobufTest {
+    /* Minimal Protobuf encoder used to build the test messages */
+
+    private static byte[] message(byte[]... fields)   {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Arrays.stream(fields).forEach(out::writeBytes);
+        return out.toByteArray();
+    }
+
+    private static byte[] field(int number, byte[] value)   {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        varint(out, (number << 3) | ProtobufReader.WIRE_TYPE_LENGTH_DELIMITED);
+        varint(out, value.length);
+        out.writeBytes(value);
+        return out.toByteArray();
+    }
+
+    private static byte[] field(int number, String value)   {
+        return field(number, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] varintField(int number, long value)   {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        varint(out, number << 3);
+        varint(out, value);
+        return out.toByteArray();
+    }
+
+    private static void varint(ByteArrayOutputStream out, long value)   {
+        while ((value & ~0x7FL) != 0)   {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        out.write((int) value);
+    }
+
+    private static byte[] entry(int number, String key, byte[] value)   {
+        return field(number, message(field(1, key), field(2, value)));
+    }
+
+    private static byte[] envelope(String kind, byte[] raw)   {
+        return message(new byte[] {0x6b, 0x38, 0x73, 0x00},
+                field(1, message(field(1, "v1"), field(2, kind))),
+                field(2, raw),
+                field(4, "application/vnd.kubernetes.protobuf"));
+    }
+
+    private static byte[] metadata()    {
+        return field(1, message(
+                field(1, "my-resource"),
+                field(3, "my-namespace"),
+                field(5, "a6b8c0d2"),
+                field(6, "12345"),
+                varintField(7, 3),
+                entry(11, "app", "my-app".getBytes(StandardCharsets.UTF_8)),
+                entry(12, "note", "ignored".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /* Tests */
+
+    @Test
+    public void testDecodeSecret()  {
+        byte[] body = envelope("Secret", message(metadata(),
+                entry(2, "password", "my-password".getBytes(StandardCharsets.UTF_8)),
+                entry(2, "keystore.p12", new byte[] {0, 1, 2, (byte) 0xFF}),
+                field(3, "Opaque"),
+                varintField(5, 1)));
+
+        assertThat(KubernetesProtobuf.isProtobuf(body), is(true));
+        Secret secret = (Secret) KubernetesProtobuf.decode(body);
+
+        assertThat(secret.getMetadata().getName(), is("my-resource"));
+        assertThat(secret.getMetadata().getNamespace(), is("my-namespace"));
+        assertThat(secret.getMetadata().getResourceVersion(), is("12345"));
+        assertThat(secret.getMetadata().getLabels(), is(Map.of("app", "my-app")));
+        assertThat(secret.getType(), is("Opaque"));
+        assertThat(new String(Base64.getDecoder().decode(secret.getData().get("password")), StandardCharsets.UTF_8), is("my-password"));
+        assertThat(Base64.getDecoder().decode(secret.getData().get("keystore.p12")), is(new byte[] {0, 1, 2, (byte) 0xFF}));
+    }
+
+    @Test
+    public void testDecodeConfigMap()  {
+        byte[] body = envelope("ConfigMap", message(metadata(),
+                entry(2, "bootstrap.servers", "my-kafka:9092".getBytes(StandardCharsets.UTF_8)),
+                entry(3, "truststore.p12", new byte[] {7, 8, 9})));
+
+        ConfigMap configMap = (ConfigMap) KubernetesProtobuf.decode(body);
+
+        assertThat(configMap.getMetadata().getName(), is("my-resource"));
+        assertThat(configMap.getData(), is(Map.of("bootstrap.servers", "my-kafka:9092")));
+        assertThat(Base64.getDecoder().decode(configMap.getBinaryData().get("truststore.p12")), is(new byte[] {7, 8, 9}));
+    }
+
+    @Test
+    public void testInvalidMessages()  {
+        assertThat(KubernetesProtobuf.isProtobuf("{\"kind\":\"Secret\"}".getBytes(StandardCharsets.UTF_8)), is(false));
+        assertThrows(IllegalArgumentException.class, () -> KubernetesProtobuf.decode("{}".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class, () -> KubernetesProtobuf.decode(envelope("Pod", message(metadata()))));
+
+        byte[] truncated = envelope("Secret", message(metadata()));
+        assertThrows(IllegalArgumentException.class, () -> KubernetesProtobuf.decode(Arrays.copyOf(truncated, truncated.length - 3)));
+    }
+
+    @Test
+    public void testEmptySecret()  {
+        Secret secret = (Secret) KubernetesProtobuf.decode(envelope("Secret", message(metadata())));
+
+        assertThat(secret.getData().isEmpty(), is(true));
+        assertThat(secret.getType(), is(nullValue()));
+    }
+}
@@ -9,7 +9,10 @@ import org.apache.kafka.common.config.ConfigException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
@@ -60,4 +63,36 @@ public class KubernetesResourceIdentifierTest {
         e = assertThrows(ConfigException.class, () -> KubernetesResourceIdentifier.fromConfigString(client, "/my-namespace/my-resource"));
         assertThat(e.getMessage(), is("Invalid path /my-namespace/my-resource. It has to be in format <namespace>/<secret> (or <secret> for default namespace)."));
     }
+
+    @Test
+    public void testLabelSelectorParsing()    {
+        KubernetesResourceIdentifier id = KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/?app=my-app,app.kubernetes.io/part-of=kafka");
+
+        assertThat(id.isLabelSelector(), is(true));
+        assertThat(id.getNamespace(), is("my-namespace"));
+        assertThat(id.getName(), is(nullValue()));
+        assertThat(id.getLabels(), is(Map.of("app", "my-app", "app.kubernetes.io/part-of", "kafka")));
+        assertThat(id.toString(), is("my-namespace/?app=my-app,app.kubernetes.io/part-of=kafka"));
+        assertThat(id, is(KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/?app.kubernetes.io/part-of=kafka,app=my-app")));
+
+        id = KubernetesResourceIdentifier.fromConfigString(client, "?app=my-app");
+        assertThat(id.getNamespace(), is("default-namespace"));
+        assertThat(id.getLabels(), is(Map.of("app", "my-app")));
+        assertThat(KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/my-resource").isLabelSelector(), is(false));
+    }
+
+    @Test
+    public void testInvalidLabelSelectorParsing()    {
+        Exception e = assertThrows(ConfigException.class, () -> KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/?"));
+        assertThat(e.getMessage(), is("Invalid path my-namespace/?. It has to be in format <namespace>/?<label>=<value>,... (or ?<label>=<value>,... for default namespace)."));
+
+        e = assertThrows(ConfigException.class, () -> KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/my-resource?app=my-app"));
+        assertThat(e.getMessage(), is("Invalid path my-namespace/my-resource?app=my-app. It has to be in format <namespace>/?<label>=<value>,... (or ?<label>=<value>,... for default namespace)."));
+
+        e = assertThrows(ConfigException.class, () -> KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/?app"));
+        assertThat(e.getMessage(), is("Invalid label selector app in path my-namespace/?app. It has to be in format <label>=<value>."));
+
+        e = assertThrows(ConfigException.class, () -> KubernetesResourceIdentifier.fromConfigString(client, "my-namespace/?app=my-app,"));
+        assertThat(e.getMessage(), is("Invalid label selector  in path my-namespace/?app=my-app,. It has to be in format <label>=<value>."));
+    }
 }
@@ -0,0 +1,544 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import org.apache.kafka.common.config.ConfigData;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.internals.PluginMetricsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static io.strimzi.kafka.TestUtils.waitFor;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KubernetesSecretConfigProviderTest {
+    private static final String NAMESPACE = "my-namespace";
+    private static final String RESOURCE_NAME = "my-secret";
+
+    private KubernetesMockServer server;
+    private KubernetesClient client;
+
+    @BeforeEach
+    public void setUp()   {
+        server = TestUtils.crudMockServer();
+
+        client = server.createClient();
+        client.secrets().inNamespace(NAMESPACE).resource(secret(RESOURCE_NAME, "my-password")).create();
+    }
+
+    @AfterEach
+    public void tearDown()   {
+        client.close();
+        server.destroy();
+    }
+
+    /* Utility methods */
+
+    private static Secret secret(String name, String password)   {
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace(NAMESPACE)
+                .endMetadata()
+                .addToData("username", encode("my-user"))
+                .addToData("password", encode(password))
+                .build();
+    }
+
+    private static String encode(String value)   {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void updatePassword(String password)   {
+        updateKey("password", password);
+    }
+
+    private void updateKey(String key, String value)   {
+        client.secrets().inNamespace(NAMESPACE).withName(RESOURCE_NAME).edit(secret -> new SecretBuilder(secret).addToData(key, encode(value)).build());
+    }
+
+    private KubernetesSecretConfigProvider provider(Map<String, String> config)   {
+        KubernetesSecretConfigProvider provider = new KubernetesSecretConfigProvider();
+        provider.configure(config, server.createClient());
+
+        return provider;
+    }
+
+    /* Tests */
+
+    @Test
+    public void testDirectGet()   {
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+
+        ConfigData config = provider.get(NAMESPACE + "/" + RESOURCE_NAME);
+
+        assertThat(config.data().size(), is(2));
+        assertThat(config.data().get("username"), is("my-user"));
+        assertThat(config.data().get("password"), is("my-password"));
+        assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/i-do-not-exist"));
+
+        provider.close();
+    }
+
+    @Test
+    public void testInformerCachePerNamespace() throws InterruptedException {
+        testInformerCache(Map.of("informers.enabled", "true"));
+    }
+
+    @Test
+    public void testInformerCachePerResource() throws InterruptedException {
+        testInformerCache(Map.of("informers.enabled", "true", "informers.scope", "resource"));
+    }
+
+    private void testInformerCache(Map<String, String> config) throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(config);
+
+        // The first call might be served directly before the informer is synced
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+
+        // Once the informer is synced, the updates should propagate through it
+        updatePassword("my-new-password");
+        waitFor("the updated password", () -> "my-new-password".equals(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password")));
+
+        // Served from the cache without any additional API calls
+        int requestCount = server.getRequestCount();
+        for (int i = 0; i < 10; i++)    {
+            assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-new-password"));
+        }
+        assertThat(server.getRequestCount(), is(requestCount));
+
+        client.secrets().inNamespace(NAMESPACE).withName(RESOURCE_NAME).delete();
+        waitFor("the deleted Secret", () -> {
+            try {
+                provider.get(NAMESPACE + "/" + RESOURCE_NAME);
+                return false;
+            } catch (ConfigException e) {
+                return true;
+            }
+        });
+
+        provider.close();
+    }
+
+    @Test
+    public void testSubscriptions() throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+        List<ConfigData> changes = new CopyOnWriteArrayList<>();
+
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"), (path, data) -> changes.add(data));
+
+        // Changes to other keys should not trigger the callback
+        updateKey("username", "my-other-user");
+        updatePassword("my-new-password");
+        waitFor("the password change", () -> !changes.isEmpty());
+
+        assertThat(changes.size(), is(1));
+        assertThat(changes.get(0).data(), is(Map.of("password", "my-new-password")));
+
+        provider.unsubscribeAll();
+        updatePassword("my-newer-password");
+        Thread.sleep(500);
+
+        assertThat(changes.size(), is(1));
+
+        provider.close();
+    }
+
+    @Test
+    public void testSubscriptionsWithGetAfterChange() throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+        List<ConfigData> changes = new CopyOnWriteArrayList<>();
+
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"), (path, data) -> changes.add(data));
+
+        // Getting the new values before the watch sees the change should not hide the change from the subscription
+        updatePassword("my-new-password");
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password")).data(), is(Map.of("password", "my-new-password")));
+        waitFor("the password change", () -> !changes.isEmpty());
+
+        assertThat(changes.get(0).data(), is(Map.of("password", "my-new-password")));
+
+        provider.close();
+    }
+
+    @Test
+    public void testSubscriptionsWithSubscribeAfterChange() throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+        List<ConfigData> changes = new CopyOnWriteArrayList<>();
+
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"), (path, data) -> changes.add(data));
+
+        // Subscribing with the same keys before the watch sees the change should not hide the change from the first
+        // subscription
+        updatePassword("my-new-password");
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"), (path, data) -> { });
+        waitFor("the password change", () -> !changes.isEmpty());
+
+        assertThat(changes.get(0).data(), is(Map.of("password", "my-new-password")));
+
+        provider.close();
+    }
+
+    @Test
+    public void testSubscriptionsWithSameKeys() throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+        List<ConfigData> changes = new CopyOnWriteArrayList<>();
+        List<ConfigData> otherChanges = new CopyOnWriteArrayList<>();
+
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"), (path, data) -> changes.add(data));
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"), (path, data) -> otherChanges.add(data));
+        List<ConfigData> usernameChanges = new CopyOnWriteArrayList<>();
+        provider.subscribe(NAMESPACE + "/" + RESOURCE_NAME, Set.of("username"), (path, data) -> usernameChanges.add(data));
+
+        // Both callbacks with the same keys are notified
+        updatePassword("my-new-password");
+        waitFor("the password change", () -> changes.size() == 1 && otherChanges.size() == 1);
+
+        // New resource version with the same values does not trigger the callbacks
+        updatePassword("my-new-password");
+        updateKey("username", "my-user");
+        Thread.sleep(500);
+
+        assertThat(changes.size(), is(1));
+        assertThat(otherChanges.get(0).data(), is(Map.of("password", "my-new-password")));
+        assertThat(usernameChanges.size(), is(0));
+
+        provider.close();
+    }
+
+    @Test
+    public void testDecodedValuesAreReusedForSameResourceVersion()  {
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+        Secret secret = client.secrets().inNamespace(NAMESPACE).withName(RESOURCE_NAME).get();
+
+        Map<String, String> values = provider.valuesFromResource(secret);
+        assertThat(provider.valuesFromResource(secret), is(sameInstance(values)));
+
+        updatePassword("my-new-password");
+        Secret updated = client.secrets().inNamespace(NAMESPACE).withName(RESOURCE_NAME).get();
+        assertThat(provider.valuesFromResource(updated), is(not(sameInstance(values))));
+        assertThat(provider.valuesFromResource(updated).get("password"), is("my-new-password"));
+
+        provider.close();
+    }
+
+    @Test
+    public void testDecodedValuesWithoutConfiguration()  {
+        KubernetesSecretConfigProvider provider = new KubernetesSecretConfigProvider();
+        Secret secret = client.secrets().inNamespace(NAMESPACE).withName(RESOURCE_NAME).get();
+
+        Map<String, String> values = provider.valuesFromResource(secret);
+        assertThat(values.get("password"), is("my-password"));
+        assertThat(provider.valuesFromResource(secret), is(sameInstance(values)));
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        try (Metrics metrics = new Metrics(); PluginMetricsImpl pluginMetrics = new PluginMetricsImpl(metrics, Map.of())) {
+            KubernetesSecretConfigProvider provider = provider(Map.of());
+            provider.withPluginMetrics(pluginMetrics);
+
+            provider.get(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password"));
+            assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/i-do-not-exist"));
+
+            assertThat(ProviderMetricsTest.metricValue(metrics, "request-total", NAMESPACE), is(2.0));
+            assertThat(ProviderMetricsTest.metricValue(metrics, "error-total", NAMESPACE), is(1.0));
+            assertThat(ProviderMetricsTest.metricValue(metrics, "payload-size-max", NAMESPACE), is(38.0));
+            assertThat(ProviderMetricsTest.metricValue(metrics, "api-latency-max", NAMESPACE) > 0, is(true));
+
+            provider.close();
+        }
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(Map.of("stale.while.revalidate.enabled", "true"));
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+
+        // The last known good value is served and refreshed in the background
+        updatePassword("my-new-password");
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        waitFor("the updated password", () -> "my-new-password".equals(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password")));
+
+        // The last known good value is served when the API server is not available
+        server.shutdown();
+        for (int i = 0; i < 3; i++) {
+            assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-new-password"));
+        }
+
+        provider.close();
+    }
+
+    @Test
+    public void testMetadataCheck() throws InterruptedException {
+        KubernetesSecretConfigProvider provider = provider(Map.of("metadata.check.enabled", "true"));
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+
+        // Unchanged resource is not retrieved again
+        int requestCount = server.getRequestCount();
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThat(server.getRequestCount(), is(requestCount + 1));
+        assertThat(server.getLastRequest().getHeader("Accept").contains("as=PartialObjectMetadata"), is(true));
+
+        // Changed resource is retrieved again
+        updatePassword("my-new-password");
+        requestCount = server.getRequestCount();
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-new-password"));
+        assertThat(server.getRequestCount(), is(requestCount + 2));
+
+        client.secrets().inNamespace(NAMESPACE).withName(RESOURCE_NAME).delete();
+        assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/" + RESOURCE_NAME));
+
+        provider.close();
+    }
+
+    @Test
+    public void testMetadataCheckIsBounded() throws InterruptedException {
+        client.secrets().inNamespace(NAMESPACE).resource(secret("my-other-secret", "my-other-password")).create();
+        KubernetesSecretConfigProvider provider = provider(Map.of("metadata.check.enabled", "true", "cache.max.entries", "1"));
+
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThat(provider.get(NAMESPACE + "/my-other-secret").data().get("password"), is("my-other-password"));
+
+        // Only the most recently retrieved resource is kept for the metadata check
+        int requestCount = server.getRequestCount();
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThat(server.getRequestCount(), is(requestCount + 1));
+        assertThat(server.getLastRequest().getHeader("Accept"), not(containsString("as=PartialObjectMetadata")));
+
+        provider.close();
+    }
+
+    @Test
+    public void testLabelSelector() throws InterruptedException {
+        client.secrets().inNamespace(NAMESPACE).resource(labeledSecret("user-a", "password-a")).create();
+        client.secrets().inNamespace(NAMESPACE).resource(labeledSecret("user-b", "password-b")).create();
+
+        KubernetesSecretConfigProvider provider = provider(Map.of());
+        String path = NAMESPACE + "/?app=my-app";
+
+        int requestCount = server.getRequestCount();
+        ConfigData config = provider.get(path);
+        assertThat(server.getRequestCount(), is(requestCount + 1));
+        assertThat(config.data(), is(Map.of("user-a/username", "my-user", "user-a/password", "password-a", "user-b/username", "my-user", "user-b/password", "password-b")));
+
+        assertThat(provider.get(path, Set.of("*/password", "user-b/username")).data(), is(Map.of("*/password", "password-a" + System.lineSeparator() + "password-b", "user-b/username", "my-user")));
+        assertThat(provider.get(NAMESPACE + "/?app=other-app").data().isEmpty(), is(true));
+        assertThrows(UnsupportedOperationException.class, () -> provider.subscribe(path, Set.of("*/password"), (p, data) -> { }));
+
+        provider.close();
+    }
+
+    @Test
+    public void testLabelSelectorWithInformers() throws InterruptedException {
+        client.secrets().inNamespace(NAMESPACE).resource(labeledSecret("user-a", "password-a")).create();
+
+        KubernetesSecretConfigProvider provider = provider(Map.of("informers.enabled", "true"));
+        String path = NAMESPACE + "/?app=my-app";
+        assertThat(provider.get(path, Set.of("user-a/password")).data().get("user-a/password"), is("password-a"));
+
+        client.secrets().inNamespace(NAMESPACE).resource(labeledSecret("user-b", "password-b")).create();
+
+        // Until the informer is synced, the Secrets are listed using the Kubernetes API and the new Secret might be
+        // found before the informer sees it. So it waits until the new Secret is served without any API calls.
+        waitFor("the new Secret in the informer cache", () -> {
+            int requestCount = server.getRequestCount();
+            return "password-b".equals(provider.get(path, Set.of("user-b/password")).data().get("user-b/password"))
+                    && server.getRequestCount() == requestCount;
+        });
+
+        int requestCount = server.getRequestCount();
+        assertThat(provider.get(path).data().size(), is(4));
+        assertThat(server.getRequestCount(), is(requestCount));
+
+        provider.close();
+    }
+
+    @Test
+    public void testPrefetch()  {
+        client.secrets().inNamespace(NAMESPACE).resource(labeledSecret("user-a", "password-a")).create();
+
+        int requestCount = server.getRequestCount();
+        KubernetesSecretConfigProvider provider = provider(Map.of("prefetch.paths", NAMESPACE + "/" + RESOURCE_NAME + "," + NAMESPACE + "/?app=my-app," + NAMESPACE + "/i-do-not-exist"));
+        assertThat(server.getRequestCount(), is(requestCount + 3));
+
+        // The prefetched resources are used without any additional API calls
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThat(provider.get(NAMESPACE + "/?app=my-app").data().get("user-a/password"), is("password-a"));
+        assertThat(server.getRequestCount(), is(requestCount + 3));
+
+        // Resources which failed to be prefetched are retrieved again
+        assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/i-do-not-exist"));
+        assertThat(server.getRequestCount(), is(requestCount + 4));
+
+        provider.close();
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        client.secrets().inNamespace(NAMESPACE).resource(secret("my-other-secret", "my-other-password")).create();
+
+        KubernetesSecretConfigProvider provider = provider(Map.of("async.parallelism", "2"));
+        assertThat(provider.getAsync(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password")).get().data(), is(Map.of("password", "my-password")));
+
+        Map<String, ConfigData> configs = provider.getAllAsync(List.of(NAMESPACE + "/" + RESOURCE_NAME, NAMESPACE + "/my-other-secret")).get();
+        assertThat(configs.size(), is(2));
+        assertThat(configs.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThat(configs.get(NAMESPACE + "/my-other-secret").data().get("password"), is("my-other-password"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> provider.getAllAsync(List.of(NAMESPACE + "/" + RESOURCE_NAME, NAMESPACE + "/i-do-not-exist")).get());
+        assertThat(e.getCause() instanceof ConfigException, is(true));
+
+        provider.close();
+    }
+
+    @Test
+    public void testMountedSecret(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("password"), "my-mounted-password", StandardCharsets.UTF_8);
+
+        KubernetesSecretConfigProvider provider = provider(Map.of("mounts", NAMESPACE + "/" + RESOURCE_NAME + "=" + tempDir + "," + NAMESPACE + "/my-other-secret=" + tempDir.resolve("i-do-not-exist")));
+
+        // The mounted Secret is read without any API calls
+        int requestCount = server.getRequestCount();
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data(), is(Map.of("password", "my-mounted-password")));
+        assertThat(server.getRequestCount(), is(requestCount));
+
+        // Missing mount falls back to the Kubernetes API
+        assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/my-other-secret"));
+        assertThat(server.getRequestCount(), is(requestCount + 1));
+
+        provider.close();
+    }
+
+    @Test
+    public void testProtobufWithJsonResponse() throws InterruptedException {
+        // The mock server responds with JSON even when Protobuf is requested
+        KubernetesSecretConfigProvider provider = provider(Map.of("protobuf.enabled", "true"));
+
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThat(server.getLastRequest().getHeader("Accept").startsWith("application/vnd.kubernetes.protobuf"), is(true));
+        assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/i-do-not-exist"));
+
+        provider.close();
+    }
+
+    @Test
+    public void testSnapshot(@TempDir Path tempDir)   {
+        Map<String, String> config = Map.of("snapshot.directory", tempDir.toString(),
+                "snapshot.encryption.key", Base64.getEncoder().encodeToString(new byte[32]));
+
+        KubernetesSecretConfigProvider provider = provider(config);
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        provider.close();
+
+        // Restarted provider starts from the snapshot while the Kubernetes API is not available
+        server.shutdown();
+
+        KubernetesSecretConfigProvider restarted = provider(config);
+        assertThat(restarted.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-password"));
+        assertThrows(ConfigException.class, () -> restarted.get(NAMESPACE + "/i-do-not-exist"));
+        restarted.close();
+
+        assertThrows(ConfigException.class, () -> provider(Map.of("snapshot.directory", tempDir.toString())));
+    }
+
+    @Test
+    public void testInternedValues()   {
+        String bundle = "-----BEGIN CERTIFICATE-----\n" + "A".repeat(2048) + "\n-----END CERTIFICATE-----\n";
+        client.secrets().inNamespace(NAMESPACE).resource(new SecretBuilder(secret("my-other-secret", "my-other-password")).addToData("ca.crt", encode(bundle)).build()).create();
+        updateKey("ca.crt", bundle);
+
+        KubernetesSecretConfigProvider provider = provider(Map.of("intern.enabled", "true"));
+        KubernetesSecretConfigProvider otherProvider = provider(Map.of("intern.enabled", "true"));
+
+        String ca = provider.get(NAMESPACE + "/" + RESOURCE_NAME, Set.of("ca.crt")).data().get("ca.crt");
+        assertThat(ca, is(bundle));
+        assertThat(otherProvider.get(NAMESPACE + "/my-other-secret", Set.of("ca.crt")).data().get("ca.crt"), is(sameInstance(ca)));
+
+        // Small values are not interned
+        assertThat(otherProvider.get(NAMESPACE + "/" + RESOURCE_NAME, Set.of("password")).data().get("password"), is("my-password"));
+
+        provider.close();
+        otherProvider.close();
+    }
+
+    @Test
+    public void testRefreshTtl()   {
+        KubernetesSecretConfigProvider provider = provider(Map.of("cache.enabled", "true", "refresh.interval.ms", "600000",
+                "refresh.intervals", NAMESPACE + "/my-other-secret=60000"));
+        client.secrets().inNamespace(NAMESPACE).resource(secret("my-other-secret", "my-other-password")).create();
+
+        long ttl = provider.get(NAMESPACE + "/" + RESOURCE_NAME).ttl();
+        assertThat(ttl > 540_000L && ttl <= 600_000L, is(true));
+
+        // Cached configuration gets its own TTL as well
+        ttl = provider.get(NAMESPACE + "/" + RESOURCE_NAME).ttl();
+        assertThat(ttl > 540_000L && ttl <= 600_000L, is(true));
+
+        ttl = provider.get(NAMESPACE + "/my-other-secret").ttl();
+        assertThat(ttl > 54_000L && ttl <= 60_000L, is(true));
+
+        provider.close();
+
+        // No TTL by default
+        provider = provider(Map.of());
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).ttl(), is(nullValue()));
+        provider.close();
+    }
+
+    @Test
+    public void testEndpointsFailover()   {
+        KubernetesMockServer otherServer = TestUtils.crudMockServer();
+        KubernetesClient otherClient = otherServer.createClient();
+        otherClient.secrets().inNamespace(NAMESPACE).resource(secret(RESOURCE_NAME, "my-other-password")).create();
+
+        KubernetesMockServer stoppedServer = TestUtils.crudMockServer();
+        String stoppedUrl = stoppedServer.createClient().getConfiguration().getMasterUrl();
+        stoppedServer.destroy();
+
+        KubernetesSecretConfigProvider provider = provider(Map.of("endpoints", stoppedUrl + "," + otherClient.getConfiguration().getMasterUrl() + "," + client.getConfiguration().getMasterUrl()));
+
+        // The stopped API server is skipped and the next endpoint is used
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-other-password"));
+        assertThat(provider.get(NAMESPACE + "/" + RESOURCE_NAME).data().get("password"), is("my-other-password"));
+        assertThrows(ConfigException.class, () -> provider.get(NAMESPACE + "/i-do-not-exist"));
+
+        provider.close();
+        otherClient.close();
+        otherServer.destroy();
+    }
+
+    private static Secret labeledSecret(String name, String password)   {
+        return new SecretBuilder(secret(name, password))
+                .editMetadata()
+                    .addToLabels("app", "my-app")
+                .endMetadata()
+                .build();
+    }
+}
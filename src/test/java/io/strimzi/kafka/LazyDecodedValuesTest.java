@@ -0,0 +1,52 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LazyDecodedValuesTest {
+    private static String encode(String value)   {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testValuesAreDecodedOnlyWhenRequested()    {
+        // The keystore is not valid Base64 and would fail if it was decoded
+        LazyDecodedValues values = new LazyDecodedValues("1", Map.of("password", encode("my-password"), "keystore.p12", "not-base-64!"));
+
+        assertThat(values.size(), is(2));
+        assertThat(values.containsKey("keystore.p12"), is(true));
+        assertThat(values.get("password"), is("my-password"));
+        assertThat(values.get("missing"), is(nullValue()));
+        assertThrows(IllegalArgumentException.class, () -> values.get("keystore.p12"));
+    }
+
+    @Test
+    public void testSortedKeysAndAllValues()    {
+        LazyDecodedValues values = new LazyDecodedValues("1", Map.of("c", encode("3"), "a", encode("1"), "b", encode("2")));
+
+        assertThat(List.copyOf(values.keySet()), is(List.of("a", "b", "c")));
+        assertThat(new HashMap<>(values), is(Map.of("a", "1", "b", "2", "c", "3")));
+    }
+
+    @Test
+    public void testEmptySecret()    {
+        LazyDecodedValues values = new LazyDecodedValues("1", null);
+
+        assertThat(values.isEmpty(), is(true));
+        assertThat(values.get("password"), is(nullValue()));
+    }
+}
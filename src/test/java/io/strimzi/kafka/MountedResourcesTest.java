@@ -0,0 +1,119 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static io.strimzi.kafka.TestUtils.waitFor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MountedResourcesTest {
+    private static final KubernetesResourceIdentifier MOUNTED = KubernetesResourceIdentifier.of("my-namespace", "my-secret");
+
+    @TempDir
+    Path tempDir;
+
+    private MountedResources mounts(Path directory)  {
+        return MountedResources.fromMappings("Secret", List.of("my-namespace/my-secret=" + directory), path -> {
+            String[] parts = path.split("/");
+            return KubernetesResourceIdentifier.of(parts[0], parts[1]);
+        });
+    }
+
+    /**
+     * Writes the files the same way as the kubelet: into a new timestamped directory with the ..data symbolic link
+     * swapped atomically to point to it
+     */
+    private void writeVolume(Path mount, String version, Map<String, String> files) throws IOException {
+        Path data = Files.createDirectories(mount.resolve(".." + version));
+
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            Files.writeString(data.resolve(file.getKey()), file.getValue(), StandardCharsets.UTF_8);
+
+            if (!Files.exists(mount.resolve(file.getKey()), LinkOption.NOFOLLOW_LINKS))  {
+                Files.createSymbolicLink(mount.resolve(file.getKey()), Path.of("..data", file.getKey()));
+            }
+        }
+
+        Path tmp = Files.createSymbolicLink(mount.resolve("..data_tmp"), data.getFileName());
+        Files.move(tmp, mount.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Test
+    public void testValuesFromKubeletVolume() throws IOException, InterruptedException {
+        Path mount = Files.createDirectory(tempDir.resolve("my-secret"));
+        writeVolume(mount, "v1", Map.of("username", "my-user", "password", "my-password"));
+
+        MountedResources mounts = mounts(mount);
+        assertThat(mounts.values(MOUNTED), is(Map.of("username", "my-user", "password", "my-password")));
+        assertThat(mounts.values(KubernetesResourceIdentifier.of("my-namespace", "other-secret")), is(nullValue()));
+
+        writeVolume(mount, "v2", Map.of("username", "my-user", "password", "my-new-password"));
+        waitFor("the updated password", () -> "my-new-password".equals(mounts.values(MOUNTED).get("password")));
+
+        mounts.close();
+    }
+
+    @Test
+    public void testLargeValues() throws IOException {
+        Path mount = Files.createDirectory(tempDir.resolve("my-secret"));
+        String large = "x".repeat(256 * 1024);
+        Files.writeString(mount.resolve("ca.crt"), large, StandardCharsets.UTF_8);
+
+        MountedResources mounts = mounts(mount);
+        assertThat(mounts.values(MOUNTED).get("ca.crt"), is(large));
+
+        mounts.close();
+    }
+
+    @Test
+    public void testBinaryValues() throws IOException {
+        Path mount = Files.createDirectory(tempDir.resolve("my-secret"));
+        byte[] binary = new byte[]{(byte) 0xff, (byte) 0xfe, 0x00, (byte) 0xc3};
+        Files.write(mount.resolve("keystore.p12"), binary);
+        byte[] largeBinary = new byte[256 * 1024];
+        Arrays.fill(largeBinary, (byte) 0xff);
+        Files.write(mount.resolve("truststore.p12"), largeBinary);
+        Files.writeString(mount.resolve("password"), "my-password", StandardCharsets.UTF_8);
+
+        MountedResources mounts = mounts(mount);
+        Map<String, String> values = mounts.values(MOUNTED);
+        assertThat(values.get("password"), is("my-password"));
+        assertThat(values.get("keystore.p12"), is(new String(binary, StandardCharsets.UTF_8)));
+        assertThat(values.get("truststore.p12"), is(new String(largeBinary, StandardCharsets.UTF_8)));
+
+        mounts.close();
+    }
+
+    @Test
+    public void testMissingMount()  {
+        MountedResources mounts = mounts(tempDir.resolve("i-do-not-exist"));
+        assertThat(mounts.values(MOUNTED), is(nullValue()));
+
+        mounts.close();
+    }
+
+    @Test
+    public void testInvalidMappings()  {
+        assertThat(MountedResources.fromMappings("Secret", List.of(), path -> null), is(nullValue()));
+        assertThrows(ConfigException.class, () -> MountedResources.fromMappings("Secret", List.of("my-namespace/my-secret"), path -> MOUNTED));
+        assertThrows(ConfigException.class, () -> MountedResources.fromMappings("Secret", List.of("=/mnt/secret"), path -> MOUNTED));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PrefetchedResourcesTest {
+    private static final KubernetesResourceIdentifier FIRST = KubernetesResourceIdentifier.of("my-namespace", "first");
+    private static final KubernetesResourceIdentifier SECOND = KubernetesResourceIdentifier.of("my-namespace", "second");
+    private static final KubernetesResourceIdentifier FAILING = KubernetesResourceIdentifier.of("my-namespace", "failing");
+    private static final KubernetesResourceIdentifier SELECTOR = KubernetesResourceIdentifier.withLabels("my-namespace", Map.of("app", "my-app"));
+
+    @Test
+    public void testPrefetch()  {
+        AtomicLong clock = new AtomicLong(0);
+
+        PrefetchedResources<String> prefetched = PrefetchedResources.prefetch("Secret", List.of(FIRST, SECOND, FAILING, SELECTOR), 2, 1_000L, clock::get,
+                id -> {
+                    if (id.equals(FAILING)) {
+                        throw new ConfigException("Not found");
+                    }
+
+                    return id.getName();
+                },
+                id -> List.of("first", "second"));
+
+        assertThat(prefetched.get(FIRST), is("first"));
+        assertThat(prefetched.get(SECOND), is("second"));
+        assertThat(prefetched.get(FAILING), is(nullValue()));
+        assertThat(prefetched.list(SELECTOR), is(List.of("first", "second")));
+
+        clock.set(1_000L);
+        assertThat(prefetched.get(FIRST), is(nullValue()));
+        assertThat(prefetched.list(SELECTOR), is(nullValue()));
+    }
+
+    @Test
+    public void testPrefetchInParallel()  {
+        // Both resources have to be retrieved at the same time to release the latch
+        CountDownLatch latch = new CountDownLatch(2);
+
+        PrefetchedResources<String> prefetched = PrefetchedResources.prefetch("Secret", List.of(FIRST, SECOND), 2, 1_000L, System::currentTimeMillis,
+                id -> {
+                    latch.countDown();
+
+                    try {
+                        return latch.await(10, TimeUnit.SECONDS) ? id.getName() : null;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RuntimeException(e);
+                    }
+                },
+                id -> List.of());
+
+        assertThat(prefetched.get(FIRST), is("first"));
+        assertThat(prefetched.get(SECOND), is("second"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.internals.PluginMetricsImpl;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ProviderMetricsTest {
+    static double metricValue(Metrics metrics, String name, String namespace)  {
+        for (Map.Entry<MetricName, KafkaMetric> metric : metrics.metrics().entrySet())  {
+            if (metric.getKey().name().equals(name) && namespace.equals(metric.getKey().tags().get("namespace")))    {
+                return (double) metric.getValue().metricValue();
+            }
+        }
+
+        throw new AssertionError("Metric " + name + " for namespace " + namespace + " not found");
+    }
+
+    @Test
+    public void testPluginMetrics() throws Exception {
+        try (Metrics metrics = new Metrics(); PluginMetricsImpl pluginMetrics = new PluginMetricsImpl(metrics, Map.of("config", "config.providers", "class", "KubernetesSecretConfigProvider"))) {
+            ProviderMetrics providerMetrics = new ProviderMetrics("Secret");
+            providerMetrics.withPluginMetrics(pluginMetrics);
+
+            providerMetrics.recordApiCall("ns1", 5_000_000L);
+            providerMetrics.recordRequest("ns1", 1_000_000L, 100L);
+            providerMetrics.recordRequest("ns1", 3_000_000L, 300L);
+            providerMetrics.recordError("ns1");
+            providerMetrics.recordError("ns2");
+            providerMetrics.recordQueueWait("ns1", 7_000_000L);
+
+            assertThat(metricValue(metrics, "request-total", "ns1"), is(3.0));
+            assertThat(metricValue(metrics, "error-total", "ns1"), is(1.0));
+            assertThat(metricValue(metrics, "request-total", "ns2"), is(1.0));
+            assertThat(metricValue(metrics, "error-total", "ns2"), is(1.0));
+            assertThat(metricValue(metrics, "api-latency-max", "ns1"), is(5.0));
+            assertThat(metricValue(metrics, "processing-time-avg", "ns1"), is(2.0));
+            assertThat(metricValue(metrics, "payload-size-max", "ns1"), is(300.0));
+            assertThat(metricValue(metrics, "queue-wait-max", "ns1"), is(7.0));
+        }
+    }
+
+    @Test
+    public void testJmxMetricsWithoutPluginMetrics() throws Exception {
+        ProviderMetrics providerMetrics = new ProviderMetrics("ConfigMap");
+        providerMetrics.recordError("my-jmx-namespace");
+
+        ObjectName name = new ObjectName(ProviderMetrics.JMX_PREFIX + ":type=" + ProviderMetrics.GROUP + ",kind=ConfigMap,namespace=my-jmx-namespace");
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "error-total"), is(1.0));
+    }
+
+    @Test
+    public void testSharedGaugesAreSummed() throws Exception {
+        ProviderMetrics providerMetrics = new ProviderMetrics("MyKind");
+        ProviderMetrics otherProviderMetrics = new ProviderMetrics("MyKind");
+        providerMetrics.addGauge("cache-hit-total", "The total number of hits", () -> 2L);
+        otherProviderMetrics.addGauge("cache-hit-total", "The total number of hits", () -> 3L);
+        providerMetrics.addJvmGauge("value-pool-size", "The number of pooled values", () -> 7L);
+        otherProviderMetrics.addJvmGauge("value-pool-size", "The number of pooled values", () -> 7L);
+
+        ObjectName name = new ObjectName(ProviderMetrics.JMX_PREFIX + ":type=" + ProviderMetrics.GROUP + ",kind=MyKind");
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "cache-hit-total"), is(5.0));
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "value-pool-size"), is(7.0));
+
+        providerMetrics.close();
+        assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(name, "cache-hit-total"), is(3.0));
+        otherProviderMetrics.close();
+    }
+
+    @Test
+    public void testGaugesAreMovedToPluginMetrics() throws Exception {
+        try (Metrics metrics = new Metrics(); PluginMetricsImpl pluginMetrics = new PluginMetricsImpl(metrics, Map.of("config", "config.providers", "class", "KubernetesSecretConfigProvider"))) {
+            // Kafka provides the plugin metrics only after the provider is configured
+            ProviderMetrics providerMetrics = new ProviderMetrics("MyPluginKind");
+            providerMetrics.addGauge("cache-miss-total", "The total number of misses", () -> 4L);
+            providerMetrics.withPluginMetrics(pluginMetrics);
+
+            MetricName name = pluginMetrics.metricName("cache-miss-total", "The total number of misses", new LinkedHashMap<>(Map.of("kind", "MyPluginKind")));
+            assertThat(metrics.metric(name).metricValue(), is(4.0));
+
+            ObjectName shared = new ObjectName(ProviderMetrics.JMX_PREFIX + ":type=" + ProviderMetrics.GROUP + ",kind=MyPluginKind");
+            assertThat(ManagementFactory.getPlatformMBeanServer().getAttribute(shared, "cache-miss-total"), is(0.0));
+        }
+    }
+
+    @Test
+    public void testPayloadBytes()  {
+        assertThat(ProviderMetrics.payloadBytes(Map.of("key", "value", "k", "")), is(18L));
+    }
+}
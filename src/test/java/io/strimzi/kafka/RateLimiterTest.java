@@ -0,0 +1,111 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.strimzi.kafka.TestUtils.waitFor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RateLimiterTest {
+    @Test
+    public void testBurst()   {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1d, 3, clock::get);
+
+        // The burst is served without waiting
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.acquire("my-namespace"), is(0L));
+        }
+    }
+
+    @Test
+    public void testFairQueuing() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1d, 1, clock::get);
+        List<String> granted = new CopyOnWriteArrayList<>();
+
+        limiter.acquire("namespace-a");
+
+        for (int i = 0; i < 3; i++) {
+            acquireInBackground(limiter, "namespace-a", granted);
+        }
+        waitFor("the queued requests", () -> limiter.waiting() == 3);
+
+        acquireInBackground(limiter, "namespace-b", granted);
+        waitFor("the queued requests", () -> limiter.waiting() == 4);
+
+        // The namespaces take turns
+        for (int i = 1; i <= 4; i++)    {
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            int expected = i;
+            waitFor("the granted request", () -> granted.size() == expected);
+        }
+
+        assertThat(granted, is(List.of("namespace-a", "namespace-b", "namespace-a", "namespace-a")));
+    }
+
+    @Test
+    public void testInterruptedAfterGrant() throws InterruptedException {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1d, 1, clock::get);
+        List<String> granted = new CopyOnWriteArrayList<>();
+
+        limiter.acquire("namespace-a");
+
+        Thread interrupted = new Thread(() -> {
+            try {
+                limiter.acquire("namespace-a");
+                granted.add("namespace-a");
+            } catch (ConfigException e) {
+                granted.add("interrupted");
+            }
+        });
+        interrupted.setDaemon(true);
+        interrupted.start();
+        waitFor("the queued request", () -> limiter.waiting() == 1);
+
+        Thread thread = new Thread(() -> {
+            // The token is granted to the interrupted request before it gets the lock back
+            synchronized (limiter)  {
+                interrupted.interrupt();
+
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+                limiter.acquire("namespace-b");
+            }
+
+            granted.add("namespace-b");
+        });
+        thread.setDaemon(true);
+        thread.start();
+
+        // The unused token is handed out again without waiting for a new one
+        waitFor("the granted request", () -> granted.size() == 2);
+        assertThat(Set.copyOf(granted), is(Set.of("interrupted", "namespace-b")));
+    }
+
+    private static void acquireInBackground(RateLimiter limiter, String namespace, List<String> granted)   {
+        Thread thread = new Thread(() -> {
+            limiter.acquire(namespace);
+            granted.add(namespace);
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RefreshPolicyTest {
+    private static final Function<String, KubernetesResourceIdentifier> PARSER = path -> {
+        String[] segments = path.split("/");
+        return KubernetesResourceIdentifier.of(segments[0], segments[1]);
+    };
+
+    private static RefreshPolicy policy(Map<String, String> config)  {
+        return RefreshPolicy.fromConfig(new KubernetesConfigProviderConfig(config), PARSER);
+    }
+
+    @Test
+    public void testTtl()   {
+        Map<KubernetesResourceIdentifier, Long> intervals = new HashMap<>();
+        intervals.put(KubernetesResourceIdentifier.of("my-namespace", "my-rotated-secret"), 60_000L);
+
+        RefreshPolicy policy = new RefreshPolicy(600_000L, intervals, 0.1d, () -> 0.5d);
+        assertThat(policy.ttl(KubernetesResourceIdentifier.of("my-namespace", "my-secret")), is(570_000L));
+        assertThat(policy.ttl(KubernetesResourceIdentifier.of("my-namespace", "my-rotated-secret")), is(57_000L));
+
+        // Only the configured paths are refreshed without the default interval
+        policy = new RefreshPolicy(null, intervals, 0d, () -> 0.5d);
+        assertThat(policy.ttl(KubernetesResourceIdentifier.of("my-namespace", "my-secret")), is(nullValue()));
+        assertThat(policy.ttl(KubernetesResourceIdentifier.of("my-namespace", "my-rotated-secret")), is(60_000L));
+    }
+
+    @Test
+    public void testJitterDoesNotExceedTheInterval()   {
+        RefreshPolicy policy = policy(Map.of("refresh.interval.ms", "1000", "refresh.jitter", "0.5"));
+
+        for (int i = 0; i < 1_000; i++)   {
+            long ttl = policy.ttl(KubernetesResourceIdentifier.of("my-namespace", "my-secret"));
+            assertThat(ttl > 500L && ttl <= 1_000L, is(true));
+        }
+    }
+
+    @Test
+    public void testConfiguration()   {
+        assertThat(policy(Map.of()), is(nullValue()));
+        assertThat(policy(Map.of("refresh.intervals", "my-namespace/my-secret=5000", "refresh.jitter", "0")).ttl(KubernetesResourceIdentifier.of("my-namespace", "my-secret")), is(5_000L));
+
+        assertThrows(ConfigException.class, () -> policy(Map.of("refresh.interval.ms", "0")));
+        assertThrows(ConfigException.class, () -> policy(Map.of("refresh.intervals", "my-namespace/my-secret")));
+        assertThrows(ConfigException.class, () -> policy(Map.of("refresh.intervals", "my-namespace/my-secret=soon")));
+        assertThrows(ConfigException.class, () -> policy(Map.of("refresh.jitter", "2")));
+    }
+}
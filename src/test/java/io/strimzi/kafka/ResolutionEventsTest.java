@@ -0,0 +1,96 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ResolutionEventsTest {
+    private static final String NAMESPACE = "my-namespace";
+
+    private KubernetesMockServer server;
+    private KubernetesClient client;
+
+    @BeforeEach
+    public void setUp()   {
+        server = TestUtils.crudMockServer();
+
+        client = server.createClient();
+        client.configMaps().inNamespace(NAMESPACE).resource(new ConfigMapBuilder()
+                .withNewMetadata()
+                    .withName("my-config-map")
+                    .withNamespace(NAMESPACE)
+                .endMetadata()
+                .addToData("url", "https://my-server:8443")
+                .addToData("timeout", "30")
+                .build()).create();
+    }
+
+    @AfterEach
+    public void tearDown()   {
+        client.close();
+        server.destroy();
+    }
+
+    @Test
+    public void testEvents(@TempDir Path tempDir) throws IOException {
+        KubernetesConfigMapConfigProvider provider = new KubernetesConfigMapConfigProvider();
+        provider.configure(Map.of("cache.enabled", "true"), server.createClient());
+
+        Path dump = tempDir.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable(ResolutionEvents.FetchEvent.class).withoutThreshold();
+            recording.enable(ResolutionEvents.DecodeEvent.class).withoutThreshold();
+            recording.enable(ResolutionEvents.FilterEvent.class).withoutThreshold();
+            recording.start();
+
+            provider.get(NAMESPACE + "/my-config-map", Set.of("url"));
+            provider.get(NAMESPACE + "/my-config-map", Set.of("url"));
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        provider.close();
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Map<String, List<RecordedEvent>> byType = events.stream().collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+
+        assertThat(byType.get("io.strimzi.kafka.ResourceFetch").size(), is(2));
+        RecordedEvent fetch = byType.get("io.strimzi.kafka.ResourceFetch").get(0);
+        assertThat(fetch.getString("kind"), is("ConfigMap"));
+        assertThat(fetch.getString("namespace"), is(NAMESPACE));
+        assertThat(fetch.getString("name"), is("my-config-map"));
+        assertThat(fetch.getString("source"), is("resource"));
+
+        assertThat(byType.get("io.strimzi.kafka.ValueDecode").size(), is(1));
+        assertThat(byType.get("io.strimzi.kafka.ValueDecode").get(0).getInt("keyCount"), is(2));
+
+        List<String> outcomes = byType.get("io.strimzi.kafka.KeyFilter").stream().map(event -> event.getString("cacheOutcome")).collect(Collectors.toList());
+        assertThat(outcomes, is(List.of("miss", "hit")));
+        RecordedEvent filter = byType.get("io.strimzi.kafka.KeyFilter").get(0);
+        assertThat(filter.getInt("keyCount"), is(1));
+        assertThat(filter.getLong("payloadBytes"), is(2L * ("url".length() + "https://my-server:8443".length())));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.HttpURLConnection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResourceMetadataFetcherTest {
+    private KubernetesMockServer server;
+    private KubernetesClient client;
+
+    @BeforeEach
+    public void setUp()   {
+        server = new KubernetesMockServer(false);
+        server.init();
+        client = server.createClient();
+    }
+
+    @AfterEach
+    public void tearDown()   {
+        client.close();
+        server.destroy();
+    }
+
+    @Test
+    public void testErrorResponsesKeepStatusCode()   {
+        server.expect().get().withPath("/api/v1/namespaces/my-namespace/secrets/forbidden").andReturn(HttpURLConnection.HTTP_FORBIDDEN, "").always();
+        server.expect().get().withPath("/api/v1/namespaces/my-namespace/secrets/missing").andReturn(HttpURLConnection.HTTP_NOT_FOUND, "").always();
+
+        ResourceMetadataFetcher fetcher = new ResourceMetadataFetcher(client, "Secret");
+
+        KubernetesClientException e = assertThrows(KubernetesClientException.class, () -> fetcher.resourceVersion(KubernetesResourceIdentifier.of("my-namespace", "forbidden")));
+        assertThat(e.getCode(), is(HttpURLConnection.HTTP_FORBIDDEN));
+        assertThat(fetcher.resourceVersion(KubernetesResourceIdentifier.of("my-namespace", "missing")), is(nullValue()));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.utils.KubernetesSerialization;
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResourceSnapshotsTest {
+    private static final KubernetesSerialization SERIALIZATION = new KubernetesSerialization();
+    private static final KubernetesResourceIdentifier ID = KubernetesResourceIdentifier.of("my-namespace", "my-secret");
+    private static final byte[] KEY = new byte[32];
+
+    @TempDir
+    Path tempDir;
+
+    private static Secret secret(String resourceVersion)   {
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withName("my-secret")
+                    .withNamespace("my-namespace")
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .addToData("password", "bXktcGFzc3dvcmQ=")
+                .build();
+    }
+
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        AtomicLong clock = new AtomicLong(1_000L);
+        ResourceSnapshots<Secret> snapshots = new ResourceSnapshots<>("Secret", tempDir, KEY, 10_000L, clock::get, SERIALIZATION);
+
+        assertThat(snapshots.load(ID), is(nullValue()));
+
+        snapshots.update(ID, secret("1"));
+        Secret loaded = snapshots.load(ID);
+        assertThat(loaded.getMetadata().getResourceVersion(), is("1"));
+        assertThat(loaded.getData().get("password"), is("bXktcGFzc3dvcmQ="));
+
+        // The snapshot is encrypted and does not reveal the names or the values
+        try (var files = Files.list(tempDir)) {
+            Path file = files.findFirst().orElseThrow();
+            String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+            assertThat(file.getFileName().toString().contains("my-secret"), is(false));
+            assertThat(content.contains("my-secret") || content.contains("bXktcGFzc3dvcmQ="), is(false));
+        }
+
+        // Different key or resource cannot read the snapshot
+        byte[] otherKey = Arrays.copyOf(KEY, KEY.length);
+        otherKey[0] = 1;
+        assertThat(new ResourceSnapshots<Secret>("Secret", tempDir, otherKey, 10_000L, clock::get, SERIALIZATION).load(ID), is(nullValue()));
+        assertThat(new ResourceSnapshots<Secret>("ConfigMap", tempDir, KEY, 10_000L, clock::get, SERIALIZATION).load(ID), is(nullValue()));
+
+        // Too old snapshots are ignored
+        clock.addAndGet(10_001L);
+        assertThat(snapshots.load(ID), is(nullValue()));
+
+        // Deleted resource removes the snapshot
+        snapshots.update(ID, null);
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.count(), is(0L));
+        }
+
+        snapshots.close();
+    }
+
+    @Test
+    public void testGetAndRefresh() throws InterruptedException {
+        new ResourceSnapshots<Secret>("Secret", tempDir, KEY, 10_000L, System::currentTimeMillis, SERIALIZATION).update(ID, secret("1"));
+
+        ResourceSnapshots<Secret> snapshots = new ResourceSnapshots<>("Secret", tempDir, KEY, 10_000L, System::currentTimeMillis, SERIALIZATION);
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        Secret snapshot = snapshots.getAndRefresh(ID, id -> {
+            snapshots.update(id, secret("2"));
+            refreshed.countDown();
+        });
+        assertThat(snapshot.getMetadata().getResourceVersion(), is("1"));
+        assertThat(refreshed.await(10, TimeUnit.SECONDS), is(true));
+
+        // Once reconciled, the snapshot is not used anymore, but it is kept up to date for the next start
+        assertThat(snapshots.getAndRefresh(ID, id -> { }), is(nullValue()));
+        assertThat(snapshots.load(ID).getMetadata().getResourceVersion(), is("2"));
+
+        snapshots.close();
+    }
+
+    @Test
+    public void testInvalidKey() {
+        assertThrows(ConfigException.class, () -> new ResourceSnapshots<Secret>("Secret", tempDir, new byte[7], 10_000L, System::currentTimeMillis, SERIALIZATION));
+    }
+}
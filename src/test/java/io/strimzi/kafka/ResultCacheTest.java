@@ -0,0 +1,99 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ResultCacheTest {
+    private static final KubernetesResourceIdentifier ID = KubernetesResourceIdentifier.of("my-namespace", "my-secret");
+    private static final Set<String> KEYS = Set.of("password");
+    private static final Map<String, String> VALUES = Map.of("password", "my-password");
+
+    @Test
+    public void testHitAndMiss()    {
+        ResultCache cache = new ResultCache(10, Long.MAX_VALUE, Long.MAX_VALUE, () -> 0L);
+
+        assertThat(cache.get(ID, KEYS, "1"), is(nullValue()));
+
+        ConfigData data = cache.put(ID, KEYS, "1", VALUES);
+        assertThat(cache.get(ID, KEYS, "1"), is(data));
+        assertThat(cache.get(KubernetesResourceIdentifier.of("my-namespace", "my-secret"), Set.of("password"), "1"), is(data));
+
+        // Other keys
+        assertThat(cache.get(ID, null, "1"), is(nullValue()));
+
+        assertThat(cache.hits(), is(2L));
+        assertThat(cache.misses(), is(2L));
+    }
+
+    @Test
+    public void testResourceVersionInvalidation()    {
+        ResultCache cache = new ResultCache(10, Long.MAX_VALUE, Long.MAX_VALUE, () -> 0L);
+
+        cache.put(ID, KEYS, "1", VALUES);
+        assertThat(cache.get(ID, KEYS, "2"), is(nullValue()));
+        assertThat(cache.size(), is(0));
+
+        // Resources without resource version are not cached
+        cache.put(ID, KEYS, null, VALUES);
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testTtl()    {
+        AtomicLong now = new AtomicLong(0L);
+        ResultCache cache = new ResultCache(10, Long.MAX_VALUE, 1_000L, now::get);
+
+        cache.put(ID, KEYS, "1", VALUES);
+        now.set(999L);
+        assertThat(cache.get(ID, KEYS, "1"), is(notNullValue()));
+
+        now.set(1_000L);
+        assertThat(cache.get(ID, KEYS, "1"), is(nullValue()));
+    }
+
+    @Test
+    public void testLruEviction()    {
+        ResultCache cache = new ResultCache(2, Long.MAX_VALUE, Long.MAX_VALUE, () -> 0L);
+        KubernetesResourceIdentifier id1 = KubernetesResourceIdentifier.of("my-namespace", "secret1");
+        KubernetesResourceIdentifier id2 = KubernetesResourceIdentifier.of("my-namespace", "secret2");
+        KubernetesResourceIdentifier id3 = KubernetesResourceIdentifier.of("my-namespace", "secret3");
+
+        cache.put(id1, null, "1", VALUES);
+        cache.put(id2, null, "1", VALUES);
+
+        // Use key1 to make key2 the least recently used one
+        cache.get(id1, null, "1");
+        cache.put(id3, null, "1", VALUES);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.evictions(), is(1L));
+        assertThat(cache.get(id1, null, "1"), is(notNullValue()));
+        assertThat(cache.get(id2, null, "1"), is(nullValue()));
+        assertThat(cache.get(id3, null, "1"), is(notNullValue()));
+    }
+
+    @Test
+    public void testSizeEviction()    {
+        ResultCache cache = new ResultCache(10, 700L, Long.MAX_VALUE, () -> 0L);
+
+        cache.put(KubernetesResourceIdentifier.of("my-namespace", "secret1"), null, "1", VALUES);
+        cache.put(KubernetesResourceIdentifier.of("my-namespace", "secret2"), null, "1", VALUES);
+        cache.put(KubernetesResourceIdentifier.of("my-namespace", "secret3"), null, "1", Map.of("key", "x".repeat(200)));
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.evictions(), is(2L));
+    }
+}
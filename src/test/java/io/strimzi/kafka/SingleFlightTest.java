@@ -0,0 +1,117 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.apache.kafka.common.config.ConfigException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.strimzi.kafka.TestUtils.waitFor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+    private static final int CALLERS = 10;
+
+    @Test
+    public void testConcurrentRequestsAreCoalesced() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger requests = new AtomicInteger(0);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("my-key", () -> {
+                    requests.incrementAndGet();
+                    await(release);
+                    return "my-value";
+                })));
+            }
+
+            // All other callers join the request in progress
+            waitFor("the callers to join the request", () -> singleFlight.waiting("my-key") == CALLERS - 1);
+            release.countDown();
+
+            for (Future<String> result : results)   {
+                assertThat(result.get(10, TimeUnit.SECONDS), is("my-value"));
+            }
+
+            assertThat(requests.get(), is(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSequentialRequestsAreNotCached()    {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger requests = new AtomicInteger(0);
+
+        assertThat(singleFlight.execute("my-key", requests::incrementAndGet), is(1));
+        assertThat(singleFlight.execute("my-key", requests::incrementAndGet), is(2));
+        assertThat(singleFlight.execute("my-other-key", requests::incrementAndGet), is(3));
+    }
+
+    @Test
+    public void testExceptionsArePropagated()    {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        ConfigException e = assertThrows(ConfigException.class, () -> singleFlight.execute("my-key", () -> {
+            throw new ConfigException("Not found");
+        }));
+        assertThat(e.getMessage(), is("Not found"));
+
+        // The failed request should not stay in progress
+        assertThat(singleFlight.execute("my-key", () -> "my-value"), is("my-value"));
+    }
+
+    @Test
+    public void testErrorsArePropagatedToWaitingCallers() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute("my-key", () -> {
+                started.countDown();
+                await(release);
+                throw new OutOfMemoryError("Out of memory");
+            }));
+
+            started.await();
+            Future<String> second = executor.submit(() -> singleFlight.execute("my-key", () -> "my-value"));
+            waitFor("the caller to join the request", () -> singleFlight.waiting("my-key") == 1);
+            release.countDown();
+
+            for (Future<String> result : List.of(first, second))    {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertThat(e.getCause() instanceof OutOfMemoryError, is(true));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch)  {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
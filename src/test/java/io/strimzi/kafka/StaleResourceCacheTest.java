@@ -0,0 +1,69 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.strimzi.kafka.TestUtils.waitFor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StaleResourceCacheTest {
+    private static final KubernetesResourceIdentifier ID = KubernetesResourceIdentifier.of("my-namespace", "my-secret");
+
+    @Test
+    public void testServesLastKnownGoodAndRefreshes() throws InterruptedException {
+        AtomicLong now = new AtomicLong(0L);
+
+        try (StaleResourceCache<String> cache = new StaleResourceCache<>("Secret", 1_000L, now::get)) {
+            assertThat(cache.getAndRefresh(ID, id -> { }), is(nullValue()));
+
+            cache.update(ID, "v1");
+            assertThat(cache.getAndRefresh(ID, id -> cache.update(id, "v2")), is("v1"));
+            waitFor("the refresh", () -> "v2".equals(cache.getAndRefresh(ID, id -> { })));
+
+            // Too old
+            now.set(1_001L);
+            assertThat(cache.getAndRefresh(ID, id -> { }), is(nullValue()));
+
+            // Deleted
+            cache.update(ID, "v3");
+            cache.update(ID, null);
+            assertThat(cache.getAndRefresh(ID, id -> { }), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void testSingleRefreshInProgress() throws InterruptedException {
+        AtomicInteger refreshes = new AtomicInteger(0);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (StaleResourceCache<String> cache = new StaleResourceCache<>("Secret", Long.MAX_VALUE, System::currentTimeMillis)) {
+            cache.update(ID, "v1");
+
+            for (int i = 0; i < 10; i++)    {
+                assertThat(cache.getAndRefresh(ID, id -> {
+                    refreshes.incrementAndGet();
+
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }), is("v1"));
+            }
+
+            release.countDown();
+            waitFor("the refresh", () -> refreshes.get() == 1);
+            assertThat(refreshes.get(), is(1));
+        }
+    }
+}
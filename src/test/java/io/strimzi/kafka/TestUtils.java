@@ -0,0 +1,50 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.client.server.mock.KubernetesCrudDispatcher;
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.mockwebserver.MockWebServer;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+final class TestUtils {
+    private TestUtils() { }
+
+    /**
+     * Creates and starts Kubernetes mock server in the CRUD mode
+     *
+     * @return  Started Kubernetes mock server
+     */
+    static KubernetesMockServer crudMockServer()  {
+        KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(), new HashMap<>(), new KubernetesCrudDispatcher(), false);
+        server.init();
+
+        return server;
+    }
+
+    /**
+     * Waits for the condition to be met
+     *
+     * @param description   Description of the condition used in the error message
+     * @param condition     Condition to wait for
+     *
+     * @throws InterruptedException  When interrupted while waiting
+     */
+    static void waitFor(String description, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+
+        while (!condition.getAsBoolean())    {
+            if (System.nanoTime() > deadline)   {
+                throw new AssertionError("Timed out waiting for " + description);
+            }
+
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ValueDigestsTest {
+    @Test
+    public void testChangedKeys()   {
+        ValueDigests digests = new ValueDigests();
+
+        assertThat(digests.update("my-namespace/my-secret", null, Map.of("user", "my-user", "password", "my-password")), is(Set.of("user", "password")));
+        assertThat(digests.update("my-namespace/my-secret", null, Map.of("user", "my-user", "password", "my-password")), is(Set.of()));
+        assertThat(digests.update("my-namespace/my-secret", null, Map.of("user", "my-user", "password", "my-new-password")), is(Set.of("password")));
+        assertThat(digests.update("my-namespace/my-secret", null, Map.of("password", "my-new-password", "ca.crt", "my-ca")), is(Set.of("user", "ca.crt")));
+
+        // Key sets are tracked separately
+        assertThat(digests.update("my-namespace/my-secret", Set.of("password"), Map.of("password", "my-new-password")), is(Set.of("password")));
+        assertThat(digests.update("my-namespace/my-secret", Set.of("password"), Map.of("password", "my-new-password")), is(Set.of()));
+
+        digests.remove("my-namespace/my-secret", Set.of("password"));
+        assertThat(digests.update("my-namespace/my-secret", Set.of("password"), Map.of("password", "my-new-password")), is(Set.of("password")));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static io.strimzi.kafka.TestUtils.waitFor;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ValuePoolTest {
+    private static final String CA = "-----BEGIN CERTIFICATE-----\nMIIDXTCCAkWgAwIBAgIJAKL0UG+mRkSPMA0GCSqGSIb3DQEBCwUAMEUxCzAJBgNV\n-----END CERTIFICATE-----\n";
+
+    @Test
+    public void testIdenticalValuesAreDeduplicated()   {
+        ValuePool pool = new ValuePool();
+
+        String first = pool.intern(CA.getBytes(StandardCharsets.UTF_8));
+        assertThat(first, is(CA));
+        assertThat(pool.hits(), is(0L));
+
+        assertThat(pool.intern(CA.getBytes(StandardCharsets.UTF_8)), is(sameInstance(first)));
+        assertThat(pool.intern(new String(CA)), is(sameInstance(first)));
+        assertThat(pool.hits(), is(2L));
+        assertThat(pool.bytesSaved(), is(4L * CA.length()));
+
+        assertThat(pool.intern(CA + "\n"), is(not(sameInstance(first))));
+        assertThat(pool.size(), is(2));
+    }
+
+    @Test
+    public void testUnusedValuesAreRemoved() throws InterruptedException {
+        ValuePool pool = new ValuePool();
+        pool.intern(new String(CA));
+
+        waitFor("the unused value to be removed", () -> {
+            System.gc();
+            // Interning another value removes the collected values from the pool
+            pool.intern("other-value");
+            return pool.size() == 1;
+        });
+    }
+
+    @Test
+    public void testLargeValues()   {
+        ValuePool pool = new ValuePool();
+        LargeValues largeValues = new LargeValues(null, pool, 16);
+
+        assertThat(largeValues.fromString(new String(CA)), is(sameInstance(largeValues.fromBytes(CA.getBytes(StandardCharsets.UTF_8)))));
+        assertThat(pool.hits(), is(1L));
+
+        // Small values are not pooled
+        assertThat(largeValues.fromString("short"), is("short"));
+        assertThat(largeValues.fromBytes("short".getBytes(StandardCharsets.UTF_8)), is("short"));
+        assertThat(pool.size(), is(1));
+    }
+}
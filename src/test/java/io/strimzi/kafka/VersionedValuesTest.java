@@ -0,0 +1,59 @@
+/*
+ * Copyright Strimzi authors.
+ * License: Apache License 2.0 (see the file LICENSE or http://apache.org/licenses/LICENSE-2.0.html).
+ */
+package io.strimzi.kafka;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class VersionedValuesTest {
+    private static Secret secret(String name, String resourceVersion)   {
+        return new SecretBuilder()
+                .withNewMetadata()
+                    .withName(name)
+                    .withNamespace("my-namespace")
+                    .withResourceVersion(resourceVersion)
+                .endMetadata()
+                .build();
+    }
+
+    @Test
+    public void testValuesAreReplacedWhenResourceVersionChanges()  {
+        VersionedValues versionedValues = new VersionedValues(10);
+        AtomicInteger builds = new AtomicInteger(0);
+
+        Map<String, String> values = versionedValues.get(secret("my-secret", "1"), () -> Map.of("build", String.valueOf(builds.incrementAndGet())));
+        assertThat(versionedValues.get(secret("my-secret", "1"), () -> Map.of("build", String.valueOf(builds.incrementAndGet()))), is(sameInstance(values)));
+
+        Map<String, String> newValues = versionedValues.get(secret("my-secret", "2"), () -> Map.of("build", String.valueOf(builds.incrementAndGet())));
+        assertThat(newValues, is(not(sameInstance(values))));
+        assertThat(newValues.get("build"), is("2"));
+        assertThat(versionedValues.size(), is(1));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResourcesAreEvicted()  {
+        VersionedValues versionedValues = new VersionedValues(2);
+        AtomicInteger builds = new AtomicInteger(0);
+
+        Map<String, String> first = versionedValues.get(secret("first", "1"), () -> Map.of("build", String.valueOf(builds.incrementAndGet())));
+        versionedValues.get(secret("second", "1"), () -> Map.of("build", String.valueOf(builds.incrementAndGet())));
+        assertThat(versionedValues.get(secret("first", "1"), () -> Map.of()), is(sameInstance(first)));
+
+        // The second resource is the least recently used one
+        versionedValues.get(secret("third", "1"), () -> Map.of("build", String.valueOf(builds.incrementAndGet())));
+        assertThat(versionedValues.size(), is(2));
+        assertThat(versionedValues.get(secret("first", "1"), () -> Map.of()), is(sameInstance(first)));
+        assertThat(versionedValues.get(secret("second", "1"), () -> Map.of("build", String.valueOf(builds.incrementAndGet()))).get("build"), is("4"));
+    }
+}